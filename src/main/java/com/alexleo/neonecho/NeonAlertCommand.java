@@ -37,21 +37,19 @@ public class NeonAlertCommand extends CommandBase {
             return;
         }
         long now = System.currentTimeMillis();
-        long secondsLeft = event.expiresAt != null ? Math.max(0L, (event.expiresAt - now) / 1000L) : 0L;
+        long secondsLeft = Math.max(0L, (event.expiresAt - now) / 1000L);
+        NeonEventDef def = event.def();
 
-        ctx.sendMessage(Message.raw(state.formatMessage("Neon alert: " + event.name + " (" + secondsLeft + "s).")));
-        if (event.description != null && !event.description.isBlank()) {
-            ctx.sendMessage(Message.raw(state.formatMessage(event.description)));
+        ctx.sendMessage(Message.raw(state.formatMessage("Neon alert: " + def.name() + " (" + secondsLeft + "s).")));
+        if (!def.description().isBlank()) {
+            ctx.sendMessage(Message.raw(state.formatMessage(def.description())));
         }
-        if ("netrun_bonus".equalsIgnoreCase(event.type)) {
-            int bonus = event.bonusCred != null ? event.bonusCred : 0;
-            int uses = event.usesRemaining != null ? event.usesRemaining : 0;
-            ctx.sendMessage(Message.raw(state.formatMessage("Netrun bonus: +" + bonus
-                    + " cred. Uses left: " + uses + ".")));
+        if (def.type() == NeonEventDef.Type.NETRUN_BONUS) {
+            ctx.sendMessage(Message.raw(state.formatMessage("Netrun bonus: +" + def.bonusCred()
+                    + " cred. Uses left: " + event.usesRemaining + ".")));
         }
-        else if ("drop".equalsIgnoreCase(event.type)) {
-            int drop = event.dropCred != null ? event.dropCred : 0;
-            ctx.sendMessage(Message.raw(state.formatMessage("Signal drop: " + drop
+        else if (def.type() == NeonEventDef.Type.DROP) {
+            ctx.sendMessage(Message.raw(state.formatMessage("Signal drop: " + def.dropCred()
                     + " cred. Claim with /neondrop.")));
         }
     }
@@ -0,0 +1,47 @@
+package com.alexleo.neonecho;
+
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Takes chat off the async chat chain. The chat thread only runs the cred cooldown check and merges the message
+ * into its player's pending batch; {@link #drain} later applies each batch with one state transaction. Pending
+ * batches are bounded by the number of chatting players, so a chat storm grows counters rather than a queue.
+ */
+public final class NeonChatIngest {
+    private final NeonEchoState state;
+    private final ConcurrentHashMap<UUID, Pending> pending = new ConcurrentHashMap<>();
+
+    public NeonChatIngest(NeonEchoState state) {
+        this.state = state;
+    }
+
+    public void submit(UUID playerId, String username, String content) {
+        boolean award = state.claimChatCred(playerId, content, System.currentTimeMillis());
+        pending.merge(playerId, new Pending(username, 1, award ? 1 : 0), Pending::merge);
+    }
+
+    public int drain() {
+        if (pending.isEmpty()) {
+            return 0;
+        }
+        int today = state.getToday();
+        int applied = 0;
+        for (UUID playerId : pending.keySet()) {
+            Pending batch = pending.remove(playerId);
+            if (batch == null) {
+                continue;
+            }
+            state.ingestChat(playerId, batch.username(), batch.messages(), batch.credAwards(), today);
+            applied += batch.messages();
+        }
+        return applied;
+    }
+
+    private record Pending(String username, int messages, int credAwards) {
+        private Pending merge(Pending next) {
+            String latest = next.username() != null ? next.username() : username;
+            return new Pending(latest, messages + next.messages(), credAwards + next.credAwards());
+        }
+    }
+}
@@ -0,0 +1,374 @@
+package com.alexleo.neonecho;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * A {@link NeonEchoConfig} compiled for lookups: tiers, risks and perks are indexed by normalized name, perk
+ * multipliers are raised to each rank ahead of time, titles are sorted by threshold, events are compiled to
+ * definitions and their choice laid out in alias tables, the daily pool is versioned, and theme fallbacks and
+ * netrun message templates are resolved once. Instances are immutable and replaced whole on reload, so a reader
+ * sees either the old config or the new one. The raw config must not be changed once compiled.
+ */
+public final class NeonCompiledConfig {
+    private static final NeonEchoState.NetrunTier FALLBACK_TIER = new NeonEchoState.NetrunTier("default", 4, 20, 2, 5, 1, 90);
+    private static final NeonEchoState.NetrunRisk FALLBACK_RISK = new NeonEchoState.NetrunRisk("normal", 1.0, 1.0, 1.0, 1.0, 1.0);
+
+    private final NeonEchoConfig raw;
+    private final NeonEchoTheme theme;
+    private final String prefix;
+    private final String joinMessage;
+    private final List<NeonMessageTemplate> netrunStartLines;
+    private final List<NeonMessageTemplate> netrunSuccessLines;
+    private final List<NeonMessageTemplate> netrunFailLines;
+    private final List<NeonMessageTemplate> netrunCooldownLines;
+    private final List<NeonMessageTemplate> netrunHintLines;
+    private final Map<String, NeonEchoState.NetrunTier> tiers = new HashMap<>();
+    private final List<String> tierNames = new ArrayList<>();
+    private final NeonEchoState.NetrunTier defaultTier;
+    private final Map<String, NeonEchoState.NetrunRisk> risks = new HashMap<>();
+    private final List<String> riskNames = new ArrayList<>();
+    private final NeonEchoState.NetrunRisk defaultRisk;
+    private final Map<String, NeonEchoConfig.PerkConfig> perks = new HashMap<>();
+    private final Map<String, PerkScaling> perkScaling = new HashMap<>();
+    private final List<NeonEchoConfig.PerkConfig> perkList;
+    private final int[] titleThresholds;
+    private final String[] titles;
+    private final Map<String, NeonEventDef> events = new HashMap<>();
+    private final Map<String, NeonEventDef> eventsByName = new HashMap<>();
+    private final Map<String, NeonEventDef> eventsByType = new HashMap<>();
+    private final NeonEventTable eventTable;
+    private final NeonDailyPool dailyPool;
+
+    private NeonCompiledConfig(NeonEchoConfig raw) {
+        this.raw = raw;
+        this.theme = NeonEchoThemes.get(raw.theme);
+        String resolvedPrefix = raw.prefix == null || raw.prefix.isBlank() ? theme.getPrefix() : raw.prefix;
+        this.prefix = resolvedPrefix != null ? resolvedPrefix : "";
+        this.joinMessage = raw.joinMessage == null || raw.joinMessage.isBlank() ? theme.getJoinMessage() : raw.joinMessage;
+        this.netrunStartLines = templates(raw.netrunStartLines, theme.getNetrunStartLines());
+        this.netrunSuccessLines = templates(raw.netrunSuccessLines, theme.getNetrunSuccessLines());
+        this.netrunFailLines = templates(raw.netrunFailLines, theme.getNetrunFailLines());
+        this.netrunCooldownLines = templates(raw.netrunCooldownLines, theme.getNetrunCooldownLines());
+        this.netrunHintLines = templates(raw.netrunHintLines, theme.getNetrunHintLines());
+
+        NeonEchoState.NetrunTier firstTier = null;
+        if (raw.netrunTiers != null) {
+            for (NeonEchoConfig.NetrunTierConfig tier : raw.netrunTiers) {
+                NeonEchoState.NetrunTier compiled = toTier(tier);
+                if (firstTier == null) {
+                    firstTier = compiled;
+                }
+                if (tier == null || tier.name == null) {
+                    continue;
+                }
+                tiers.putIfAbsent(normalize(tier.name), compiled);
+                if (!tier.name.isBlank()) {
+                    tierNames.add(tier.name);
+                }
+            }
+        }
+        NeonEchoState.NetrunTier named = raw.netrunDefaultTier != null ? tiers.get(normalize(raw.netrunDefaultTier)) : null;
+        this.defaultTier = named != null ? named : firstTier != null ? firstTier : FALLBACK_TIER;
+
+        NeonEchoState.NetrunRisk firstRisk = null;
+        if (raw.netrunRisks != null) {
+            for (NeonEchoConfig.RiskProfileConfig risk : raw.netrunRisks) {
+                NeonEchoState.NetrunRisk compiled = toRisk(risk);
+                if (firstRisk == null) {
+                    firstRisk = compiled;
+                }
+                if (risk == null || risk.name == null) {
+                    continue;
+                }
+                risks.putIfAbsent(normalize(risk.name), compiled);
+                if (!risk.name.isBlank()) {
+                    riskNames.add(risk.name);
+                }
+            }
+        }
+        NeonEchoState.NetrunRisk normal = risks.get("normal");
+        this.defaultRisk = normal != null ? normal : firstRisk != null ? firstRisk : FALLBACK_RISK;
+
+        List<NeonEchoConfig.PerkConfig> perkConfigs = new ArrayList<>();
+        if (raw.perks != null) {
+            for (NeonEchoConfig.PerkConfig perk : raw.perks) {
+                perkConfigs.add(perk);
+                if (perk != null && perk.id != null && perks.putIfAbsent(normalize(perk.id), perk) == null) {
+                    perkScaling.put(normalize(perk.id), new PerkScaling(perk));
+                }
+            }
+        }
+        this.perkList = Collections.unmodifiableList(perkConfigs);
+
+        List<NeonEchoConfig.TitleRank> ranks = new ArrayList<>();
+        if (raw.titles != null) {
+            for (NeonEchoConfig.TitleRank rank : raw.titles) {
+                if (rank != null && rank.title != null && rank.minCred != null) {
+                    ranks.add(rank);
+                }
+            }
+        }
+        // Stable sort: among equal thresholds the later entry still wins, as it did with the linear scan.
+        ranks.sort(Comparator.comparingInt(rank -> rank.minCred));
+        this.titleThresholds = new int[ranks.size()];
+        this.titles = new String[ranks.size()];
+        for (int i = 0; i < ranks.size(); i++) {
+            titleThresholds[i] = ranks.get(i).minCred;
+            titles[i] = ranks.get(i).title;
+        }
+        List<NeonEventDef> eventDefs = new ArrayList<>();
+        if (raw.events != null) {
+            for (NeonEchoConfig.EventConfig event : raw.events) {
+                if (event == null) {
+                    continue;
+                }
+                NeonEventDef def = new NeonEventDef(event);
+                eventDefs.add(def);
+                if (event.id != null) {
+                    events.putIfAbsent(normalize(event.id), def);
+                }
+                eventsByName.putIfAbsent(normalize(def.name()), def);
+                // A type shared by several events maps to null: it cannot say which one was meant.
+                String type = normalize(def.typeName());
+                eventsByType.put(type, eventsByType.containsKey(type) ? null : def);
+            }
+        }
+        this.eventTable = NeonEventTable.compile(raw, eventDefs, titles);
+        this.dailyPool = NeonDailyPool.compile(raw);
+    }
+
+    public static NeonCompiledConfig compile(NeonEchoConfig raw) {
+        return new NeonCompiledConfig(raw);
+    }
+
+    public NeonEchoConfig raw() {
+        return raw;
+    }
+
+    public NeonEchoTheme theme() {
+        return theme;
+    }
+
+    public String prefix() {
+        return prefix;
+    }
+
+    public String joinMessage() {
+        return joinMessage;
+    }
+
+    public List<NeonMessageTemplate> netrunStartLines() {
+        return netrunStartLines;
+    }
+
+    public List<NeonMessageTemplate> netrunSuccessLines() {
+        return netrunSuccessLines;
+    }
+
+    public List<NeonMessageTemplate> netrunFailLines() {
+        return netrunFailLines;
+    }
+
+    public List<NeonMessageTemplate> netrunCooldownLines() {
+        return netrunCooldownLines;
+    }
+
+    public List<NeonMessageTemplate> netrunHintLines() {
+        return netrunHintLines;
+    }
+
+    /**
+     * The named tier, or the default tier if the name is {@code null} or unknown.
+     */
+    public NeonEchoState.NetrunTier tier(String name) {
+        NeonEchoState.NetrunTier tier = name != null ? tiers.get(normalize(name)) : null;
+        return tier != null ? tier : defaultTier;
+    }
+
+    public boolean isTier(String name) {
+        return name != null && tiers.containsKey(normalize(name));
+    }
+
+    public List<String> tierNames() {
+        return Collections.unmodifiableList(tierNames);
+    }
+
+    /**
+     * The named risk profile, or {@code normal} (else the first profile) if the name is {@code null} or unknown.
+     */
+    public NeonEchoState.NetrunRisk risk(String name) {
+        NeonEchoState.NetrunRisk risk = name != null ? risks.get(normalize(name)) : null;
+        return risk != null ? risk : defaultRisk;
+    }
+
+    public boolean isRisk(String name) {
+        return name != null && risks.containsKey(normalize(name));
+    }
+
+    public List<String> riskNames() {
+        return Collections.unmodifiableList(riskNames);
+    }
+
+    public NeonEchoConfig.PerkConfig perk(String id) {
+        return id != null ? perks.get(normalize(id)) : null;
+    }
+
+    public List<NeonEchoConfig.PerkConfig> perks() {
+        return perkList;
+    }
+
+    public PerkScaling perkScaling(String id) {
+        return id != null ? perkScaling.get(normalize(id)) : null;
+    }
+
+    /**
+     * The highest title whose threshold the cred meets, or {@code Runner}.
+     */
+    public String title(int cred) {
+        int index = titleIndex(cred);
+        return index >= 0 ? titles[index] : "Runner";
+    }
+
+    /**
+     * Index of {@link #title} among the sorted titles, or -1 for the {@code Runner} fallback.
+     */
+    public int titleIndex(int cred) {
+        int low = 0;
+        int high = titleThresholds.length - 1;
+        int found = -1;
+        while (low <= high) {
+            int mid = (low + high) >>> 1;
+            if (titleThresholds[mid] <= cred) {
+                found = mid;
+                low = mid + 1;
+            }
+            else {
+                high = mid - 1;
+            }
+        }
+        return found;
+    }
+
+    /**
+     * The event with this id, or {@code null} if none is configured.
+     */
+    public NeonEventDef event(String id) {
+        return id != null ? events.get(normalize(id)) : null;
+    }
+
+    /**
+     * The event a state saved without an id refers to: the one with this name, or failing that the only one of
+     * this type. {@code null} if neither picks out an event.
+     */
+    public NeonEventDef legacyEvent(String name, String type) {
+        NeonEventDef def = name != null ? eventsByName.get(normalize(name)) : null;
+        if (def == null && type != null) {
+            def = eventsByType.get(normalize(type));
+        }
+        return def;
+    }
+
+    public NeonEventTable eventTable() {
+        return eventTable;
+    }
+
+    public NeonDailyPool dailyPool() {
+        return dailyPool;
+    }
+
+    /**
+     * One perk's effect at each rank up to its max rank. Owned ranks above the max, left behind when a config
+     * lowers it, are still multiplied out.
+     */
+    public static final class PerkScaling {
+        private final String ownedKey;
+        private final double[] reward;
+        private final double[] cooldown;
+        private final double[] timeout;
+        private final int attemptBonus;
+        private final int failPenaltyReduction;
+
+        private PerkScaling(NeonEchoConfig.PerkConfig perk) {
+            int maxRank = Math.max(1, perk.maxRank != null ? perk.maxRank : 1);
+            this.ownedKey = perk.id.toLowerCase(Locale.ROOT);
+            this.reward = powers(perk.rewardMultiplier, maxRank);
+            this.cooldown = powers(perk.cooldownMultiplier, maxRank);
+            this.timeout = powers(perk.timeoutMultiplier, maxRank);
+            this.attemptBonus = perk.attemptBonus != null ? perk.attemptBonus : 0;
+            this.failPenaltyReduction = perk.failPenaltyReduction != null ? perk.failPenaltyReduction : 0;
+        }
+
+        /**
+         * The key this perk's rank is stored under in {@link NeonPerkLoadout#owned}.
+         */
+        public String ownedKey() {
+            return ownedKey;
+        }
+
+        public NeonEchoState.PerkEffects applyTo(NeonEchoState.PerkEffects effects, int rank) {
+            return new NeonEchoState.PerkEffects(
+                    effects.rewardMultiplier() * power(reward, rank),
+                    effects.cooldownMultiplier() * power(cooldown, rank),
+                    effects.timeoutMultiplier() * power(timeout, rank),
+                    effects.attemptBonus() + attemptBonus * rank,
+                    effects.failPenaltyReduction() + failPenaltyReduction * rank);
+        }
+
+        private static double[] powers(Double multiplier, int maxRank) {
+            double[] powers = new double[maxRank + 1];
+            powers[0] = 1.0;
+            for (int rank = 1; rank <= maxRank; rank++) {
+                powers[rank] = multiplier != null ? powers[rank - 1] * multiplier : 1.0;
+            }
+            return powers;
+        }
+
+        private static double power(double[] powers, int rank) {
+            if (rank < powers.length) {
+                return powers[rank];
+            }
+            int top = powers.length - 1;
+            double result = powers[top];
+            for (int i = top; i < rank; i++) {
+                result *= powers[1];
+            }
+            return result;
+        }
+    }
+
+    private List<NeonMessageTemplate> templates(List<String> configured, List<String> themed) {
+        List<String> lines = configured == null || configured.isEmpty() ? themed : configured;
+        return NeonMessageTemplate.compileAll(lines != null ? lines : List.of(), prefix);
+    }
+
+    private static String normalize(String name) {
+        return name.trim().toLowerCase(Locale.ROOT);
+    }
+
+    private static NeonEchoState.NetrunTier toTier(NeonEchoConfig.NetrunTierConfig tier) {
+        String name = tier != null && tier.name != null ? tier.name : "default";
+        int codeLength = tier != null && tier.codeLength != null ? tier.codeLength : 4;
+        int timeout = tier != null && tier.timeoutSeconds != null ? tier.timeoutSeconds : 20;
+        int attempts = tier != null && tier.attempts != null ? tier.attempts : 2;
+        int reward = tier != null && tier.reward != null ? tier.reward : 5;
+        int failPenalty = tier != null && tier.failPenalty != null ? tier.failPenalty : 1;
+        int cooldown = tier != null && tier.cooldownSeconds != null ? tier.cooldownSeconds : 90;
+        return new NeonEchoState.NetrunTier(name, codeLength, timeout, attempts, reward, failPenalty, cooldown);
+    }
+
+    private static NeonEchoState.NetrunRisk toRisk(NeonEchoConfig.RiskProfileConfig risk) {
+        String name = risk != null && risk.name != null ? risk.name : "normal";
+        double reward = risk != null && risk.rewardMultiplier != null ? risk.rewardMultiplier : 1.0;
+        double cooldown = risk != null && risk.cooldownMultiplier != null ? risk.cooldownMultiplier : 1.0;
+        double timeout = risk != null && risk.timeoutMultiplier != null ? risk.timeoutMultiplier : 1.0;
+        double penalty = risk != null && risk.failPenaltyMultiplier != null ? risk.failPenaltyMultiplier : 1.0;
+        double attempts = risk != null && risk.attemptsMultiplier != null ? risk.attemptsMultiplier : 1.0;
+        return new NeonEchoState.NetrunRisk(name, reward, cooldown, timeout, penalty, attempts);
+    }
+}
@@ -0,0 +1,104 @@
+package com.alexleo.neonecho;
+
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.IntUnaryOperator;
+import java.util.function.LongSupplier;
+
+/**
+ * A runner's cred balance, changed with compare-and-set rather than under a lock. Every change is stamped with
+ * a sequence number, so journal records that two threads appended out of order still replay to the latest
+ * balance. The sequence is saved with the balance, so records older than the snapshot are skipped. Once the
+ * flush thread has saved a cell's latest sequence, eviction can seal it; updates to a sealed cell fail and the
+ * caller re-reads the player's record.
+ */
+public final class NeonCredCell {
+    public static final Balance SEALED = new Balance(0, -1L, true);
+
+    private final AtomicReference<Balance> balance;
+    private volatile long savedSequence;
+
+    public NeonCredCell(int cred) {
+        this(cred, 0L);
+    }
+
+    /**
+     * A cell loaded from disk: the balance was saved at {@code sequence}.
+     */
+    public NeonCredCell(int cred, long sequence) {
+        this.balance = new AtomicReference<>(new Balance(Math.max(0, cred), sequence, false));
+        this.savedSequence = sequence;
+    }
+
+    public int get() {
+        return balance.get().cred();
+    }
+
+    public Balance balance() {
+        return balance.get();
+    }
+
+    /**
+     * Applies {@code change} to the balance. Returns the new balance, {@code null} if {@code change} rejected
+     * the current balance by returning a negative value, or {@link #SEALED} if the cell has been sealed.
+     */
+    public Balance update(IntUnaryOperator change, LongSupplier sequence) {
+        while (true) {
+            Balance current = balance.get();
+            if (current.sealed()) {
+                return SEALED;
+            }
+            int next = change.applyAsInt(current.cred());
+            if (next < 0) {
+                return null;
+            }
+            Balance updated = new Balance(next, sequence.getAsLong(), false);
+            if (balance.compareAndSet(current, updated)) {
+                return updated;
+            }
+        }
+    }
+
+    /**
+     * Replays a journaled balance. Records without a sequence predate sequencing and always apply.
+     */
+    public void restore(int cred, Long sequence) {
+        while (true) {
+            Balance current = balance.get();
+            if (current.sealed() || (sequence != null && sequence <= current.sequence())) {
+                return;
+            }
+            long stamped = sequence != null ? sequence : current.sequence();
+            if (balance.compareAndSet(current, new Balance(Math.max(0, cred), stamped, false))) {
+                return;
+            }
+        }
+    }
+
+    public void markSaved(long sequence) {
+        if (sequence > savedSequence) {
+            savedSequence = sequence;
+        }
+    }
+
+    /**
+     * Seals the cell if nothing since the last save is pending.
+     */
+    public boolean trySeal() {
+        Balance current = balance.get();
+        return current.sealed()
+                || (current.sequence() <= savedSequence && balance.compareAndSet(current, current.seal()));
+    }
+
+    public void seal() {
+        Balance current;
+        do {
+            current = balance.get();
+        } while (!current.sealed() && !balance.compareAndSet(current, current.seal()));
+    }
+
+    public record Balance(int cred, long sequence, boolean sealed) {
+        private Balance seal() {
+            return new Balance(cred, sequence, true);
+        }
+    }
+}
@@ -39,6 +39,8 @@ public class NeonCredCommand extends CommandBase {
         }
         state.recordPlayerName(target.getUuid(), target.getUsername());
         int cred = state.getCred(target.getUuid());
-        ctx.sendMessage(Message.raw(state.formatMessage("Street Cred for " + target.getUsername() + ": " + cred + ".")));
+        NeonEchoState.CredRank rank = state.getCredRank(target.getUuid());
+        String placing = rank.rank() > 0 ? " (rank #" + rank.rank() + " of " + rank.total() + ")" : "";
+        ctx.sendMessage(Message.raw(state.formatMessage("Street Cred for " + target.getUsername() + ": " + cred + placing + ".")));
     }
 }
@@ -13,12 +13,16 @@ import java.util.List;
 public class NeonCredTopCommand extends CommandBase {
 
     private final NeonEchoState state;
+    private final OptionalArg<String> metricArg;
+    private final OptionalArg<String> windowArg;
     private final OptionalArg<Integer> limitArg;
 
     public NeonCredTopCommand(NeonEchoState state) {
-        super("credtop", "Shows the highest Street Cred runners.");
+        super("credtop", "Shows the top runners by cred, wins, streak or claims.");
         this.setPermissionGroup(GameMode.Adventure);
         this.state = state;
+        this.metricArg = this.withOptionalArg("metric", "cred, wins, streak or claims", ArgTypes.STRING);
+        this.windowArg = this.withOptionalArg("window", "all, daily, weekly or season", ArgTypes.STRING);
         this.limitArg = this.withOptionalArg("limit", "How many to list", ArgTypes.INTEGER);
     }
 
@@ -28,16 +32,31 @@ public class NeonCredTopCommand extends CommandBase {
         if (ctx.provided(limitArg)) {
             limit = Math.max(1, ctx.get(limitArg));
         }
-        List<NeonEchoState.CredEntry> top = state.getTopCred(limit);
+        NeonLeaderboards.Metric metric = NeonLeaderboards.Metric.CRED;
+        if (ctx.provided(metricArg)) {
+            metric = NeonLeaderboards.Metric.fromId(ctx.get(metricArg));
+            if (metric == null) {
+                ctx.sendMessage(Message.raw(state.formatMessage("Unknown board. Use cred, wins, streak or claims.")));
+                return;
+            }
+        }
+        NeonLeaderboards.Window window = NeonLeaderboards.Window.ALL;
+        if (ctx.provided(windowArg)) {
+            window = NeonLeaderboards.Window.fromId(ctx.get(windowArg));
+            if (window == null) {
+                ctx.sendMessage(Message.raw(state.formatMessage("Unknown window. Use all, daily, weekly or season.")));
+                return;
+            }
+        }
+        List<NeonEchoState.LeaderboardEntry> top = state.getLeaderboard(metric, window, limit);
+        String board = metric.label(window) + (window == NeonLeaderboards.Window.ALL ? "" : " (" + window.id() + ")");
         if (top.isEmpty()) {
-            ctx.sendMessage(Message.raw(state.formatMessage("No Street Cred recorded yet.")));
+            ctx.sendMessage(Message.raw(state.formatMessage("No " + board + " recorded yet.")));
             return;
         }
-        ctx.sendMessage(Message.raw(state.formatMessage("Top Street Cred:")));
-        int rank = 1;
-        for (NeonEchoState.CredEntry entry : top) {
-            ctx.sendMessage(Message.raw(state.formatMessage(rank + ") " + entry.displayName() + " - " + entry.cred())));
-            rank++;
+        ctx.sendMessage(Message.raw(state.formatMessage("Top " + board + ":")));
+        for (NeonEchoState.LeaderboardEntry entry : top) {
+            ctx.sendMessage(Message.raw(state.formatMessage(entry.rank() + ") " + entry.displayName() + " - " + entry.score())));
         }
     }
 }
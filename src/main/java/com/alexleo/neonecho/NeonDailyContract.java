@@ -1,8 +1,15 @@
 package com.alexleo.neonecho;
 
+import java.time.LocalDate;
+import java.time.format.DateTimeParseException;
 import java.util.ArrayList;
 import java.util.List;
 
+/**
+ * A daily contract as saved before contracts were derived from the day and runner. Still read from old saves so
+ * a runner keeps their day and claimed bit across the upgrade; the objectives in it are ignored and it is
+ * dropped the next time the runner is written.
+ */
 public final class NeonDailyContract {
     public String date;
     public Integer reward;
@@ -12,10 +19,18 @@ public final class NeonDailyContract {
     public NeonDailyContract() {
     }
 
-    public NeonDailyContract(String date, Integer reward, List<NeonDailyObjective> objectives, Boolean claimed) {
-        this.date = date;
-        this.reward = reward;
-        this.objectives = objectives;
-        this.claimed = claimed;
+    /**
+     * The contract's date as an epoch day, or {@link Integer#MIN_VALUE} if it has none.
+     */
+    public int epochDay() {
+        if (date == null) {
+            return Integer.MIN_VALUE;
+        }
+        try {
+            return (int) LocalDate.parse(date).toEpochDay();
+        }
+        catch (DateTimeParseException ex) {
+            return Integer.MIN_VALUE;
+        }
     }
 }
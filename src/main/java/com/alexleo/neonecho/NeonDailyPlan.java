@@ -0,0 +1,92 @@
+package com.alexleo.neonecho;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * A daily contract's objectives resolved once: type, target and display label for each, and for every signal
+ * the objectives that listen to it. Objectives of an unknown type keep their label but never make progress.
+ */
+public final class NeonDailyPlan {
+    private static final int[] NONE = new int[0];
+
+    private final NeonObjectiveType[] types;
+    private final int[] targets;
+    private final String[] labels;
+    private final int[][] listeners;
+
+    private NeonDailyPlan(List<NeonEchoConfig.DailyObjectiveConfig> objectives) {
+        int size = objectives.size();
+        this.types = new NeonObjectiveType[size];
+        this.targets = new int[size];
+        this.labels = new String[size];
+        List<List<Integer>> bySignal = new ArrayList<>();
+        for (int i = 0; i < NeonObjectiveType.Signal.values().length; i++) {
+            bySignal.add(new ArrayList<>());
+        }
+        for (int i = 0; i < size; i++) {
+            NeonEchoConfig.DailyObjectiveConfig objective = objectives.get(i);
+            NeonObjectiveType type = objective != null ? NeonObjectiveType.of(objective.type) : null;
+            int target = objective != null && objective.target != null ? objective.target : 0;
+            String label = objective != null ? objective.label : null;
+            if (label == null || label.isBlank()) {
+                label = type != null ? type.defaultLabel() : "Complete {target} objective";
+            }
+            types[i] = type;
+            targets[i] = target;
+            labels[i] = label.replace("{target}", Integer.toString(target));
+            if (type != null && target > 0) {
+                bySignal.get(type.signal().ordinal()).add(i);
+            }
+        }
+        this.listeners = new int[bySignal.size()][];
+        for (int i = 0; i < listeners.length; i++) {
+            List<Integer> indexes = bySignal.get(i);
+            listeners[i] = indexes.isEmpty() ? NONE : indexes.stream().mapToInt(Integer::intValue).toArray();
+        }
+    }
+
+    static NeonDailyPlan of(List<NeonEchoConfig.DailyObjectiveConfig> objectives) {
+        return new NeonDailyPlan(objectives);
+    }
+
+    public int size() {
+        return types.length;
+    }
+
+    public String label(int index) {
+        return labels[index];
+    }
+
+    public int target(int index) {
+        return targets[index];
+    }
+
+    public int progress(int index, NeonPlayerRecord record) {
+        NeonObjectiveType type = types[index];
+        return type != null ? type.progress(record) : 0;
+    }
+
+    public boolean isComplete(int index, NeonPlayerRecord record) {
+        return targets[index] > 0 && progress(index, record) >= targets[index];
+    }
+
+    /**
+     * Whether every objective is complete.
+     */
+    public boolean isComplete(NeonPlayerRecord record) {
+        for (int i = 0; i < types.length; i++) {
+            if (!isComplete(i, record)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Indexes of the objectives that {@code signal} moves.
+     */
+    public int[] listeners(NeonObjectiveType.Signal signal) {
+        return listeners[signal.ordinal()];
+    }
+}
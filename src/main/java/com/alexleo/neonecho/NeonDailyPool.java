@@ -0,0 +1,138 @@
+package com.alexleo.neonecho;
+
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * The daily objective pool, compiled from the config. A runner's contract for a day is not stored: it is derived
+ * from the day, the runner and the pool version by a seeded shuffle, so any node with the same config picks the
+ * same objectives. The version is a hash of the pool settings, so editing the pool deals new contracts. Runners
+ * who draw the same objectives share one {@link NeonDailyPlan}.
+ */
+public final class NeonDailyPool {
+    private static final int PLAN_CACHE_LIMIT = 4096;
+
+    private final List<NeonEchoConfig.DailyObjectiveConfig> objectives;
+    private final int perDay;
+    private final boolean randomize;
+    private final int reward;
+    private final long version;
+    private final NeonDailyPlan fixed;
+    private final ConcurrentHashMap<Long, NeonDailyPlan> plans = new ConcurrentHashMap<>();
+
+    private NeonDailyPool(NeonEchoConfig raw) {
+        List<NeonEchoConfig.DailyObjectiveConfig> usable = new ArrayList<>();
+        if (raw.dailyObjectivePool != null) {
+            for (NeonEchoConfig.DailyObjectiveConfig entry : raw.dailyObjectivePool) {
+                if (entry != null && entry.target != null && entry.target > 0) {
+                    usable.add(entry);
+                }
+            }
+        }
+        this.objectives = List.copyOf(usable);
+        int configured = raw.dailyObjectivesPerDay != null ? raw.dailyObjectivesPerDay : 3;
+        this.perDay = configured > 0 ? Math.min(configured, objectives.size()) : objectives.size();
+        this.randomize = Boolean.TRUE.equals(raw.dailyRandomizeObjectives) && perDay < objectives.size();
+        this.reward = raw.dailyReward != null ? raw.dailyReward : 0;
+        this.version = version(objectives, perDay, randomize);
+        this.fixed = randomize ? null : NeonDailyPlan.of(objectives.subList(0, perDay));
+    }
+
+    static NeonDailyPool compile(NeonEchoConfig raw) {
+        return new NeonDailyPool(raw);
+    }
+
+    public int reward() {
+        return reward;
+    }
+
+    /**
+     * The objectives {@code playerId} gets on {@code epochDay}, in pool order.
+     */
+    public NeonDailyPlan planFor(int epochDay, UUID playerId) {
+        if (fixed != null) {
+            return fixed;
+        }
+        int[] picked = pick(epochDay, playerId);
+        if (objectives.size() > Long.SIZE) {
+            return NeonDailyPlan.of(select(picked));
+        }
+        long mask = 0L;
+        for (int index : picked) {
+            mask |= 1L << index;
+        }
+        NeonDailyPlan plan = plans.get(mask);
+        if (plan == null) {
+            plan = NeonDailyPlan.of(select(picked));
+            if (plans.size() < PLAN_CACHE_LIMIT) {
+                NeonDailyPlan raced = plans.putIfAbsent(mask, plan);
+                plan = raced != null ? raced : plan;
+            }
+        }
+        return plan;
+    }
+
+    /**
+     * The first {@code perDay} slots of a Fisher-Yates shuffle seeded from the day, runner and version, sorted.
+     */
+    private int[] pick(int epochDay, UUID playerId) {
+        int size = objectives.size();
+        int[] order = new int[size];
+        for (int i = 0; i < size; i++) {
+            order[i] = i;
+        }
+        long state = mix(version ^ epochDay);
+        state = mix(state ^ playerId.getMostSignificantBits());
+        state = mix(state ^ playerId.getLeastSignificantBits());
+        for (int i = 0; i < perDay; i++) {
+            state += 0x9E3779B97F4A7C15L;
+            int j = i + (int) Long.remainderUnsigned(mix(state), size - i);
+            int swap = order[i];
+            order[i] = order[j];
+            order[j] = swap;
+        }
+        int[] picked = new int[perDay];
+        System.arraycopy(order, 0, picked, 0, perDay);
+        Arrays.sort(picked);
+        return picked;
+    }
+
+    private List<NeonEchoConfig.DailyObjectiveConfig> select(int[] picked) {
+        List<NeonEchoConfig.DailyObjectiveConfig> selected = new ArrayList<>(picked.length);
+        for (int index : picked) {
+            selected.add(objectives.get(index));
+        }
+        return selected;
+    }
+
+    /**
+     * SplitMix64's finalizer. Written out here rather than taken from a JDK generator so the draw cannot change
+     * between Java versions.
+     */
+    private static long mix(long z) {
+        z = (z ^ (z >>> 30)) * 0xBF58476D1CE4E5B9L;
+        z = (z ^ (z >>> 27)) * 0x94D049BB133111EBL;
+        return z ^ (z >>> 31);
+    }
+
+    /**
+     * FNV-1a over the settings that decide which objectives are dealt.
+     */
+    private static long version(List<NeonEchoConfig.DailyObjectiveConfig> objectives, int perDay, boolean randomize) {
+        StringBuilder key = new StringBuilder();
+        key.append(perDay).append('|').append(randomize);
+        for (NeonEchoConfig.DailyObjectiveConfig entry : objectives) {
+            key.append('|').append(entry.type).append(':').append(entry.target).append(':').append(entry.label);
+        }
+        long hash = 0xCBF29CE484222325L;
+        for (byte b : key.toString().getBytes(StandardCharsets.UTF_8)) {
+            hash ^= b & 0xFF;
+            hash *= 0x100000001B3L;
+        }
+        return hash;
+    }
+}
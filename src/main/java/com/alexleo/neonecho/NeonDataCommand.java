@@ -0,0 +1,58 @@
+package com.alexleo.neonecho;
+
+import com.hypixel.hytale.protocol.GameMode;
+import com.hypixel.hytale.server.core.Message;
+import com.hypixel.hytale.server.core.command.system.CommandContext;
+import com.hypixel.hytale.server.core.command.system.arguments.system.OptionalArg;
+import com.hypixel.hytale.server.core.command.system.arguments.system.RequiredArg;
+import com.hypixel.hytale.server.core.command.system.arguments.types.ArgTypes;
+import com.hypixel.hytale.server.core.command.system.basecommands.CommandBase;
+
+import javax.annotation.Nonnull;
+import java.util.Locale;
+
+public class NeonDataCommand extends CommandBase {
+
+    private final NeonEchoState state;
+    private final RequiredArg<String> actionArg;
+    private final OptionalArg<String> fileArg;
+
+    public NeonDataCommand(NeonEchoState state) {
+        super("neondata", "Exports or imports NeonEcho runner data as JSON.");
+        this.setPermissionGroup(GameMode.Creative);
+        this.state = state;
+        this.actionArg = this.withRequiredArg("action", "export or import", ArgTypes.STRING);
+        this.fileArg = this.withOptionalArg("file", "Export file name", ArgTypes.STRING);
+    }
+
+    @Override
+    protected void executeSync(@Nonnull CommandContext ctx) {
+        String action = ctx.get(actionArg).trim().toLowerCase(Locale.ROOT);
+        switch (action) {
+            case "export" -> state.exportData().whenComplete((exported, error) -> {
+                if (exported != null) {
+                    ctx.sendMessage(Message.raw(state.formatMessage("Runner data exported to exports/" + exported.getFileName() + ".")));
+                }
+                else {
+                    ctx.sendMessage(Message.raw(state.formatMessage("Export failed. Check logs.")));
+                }
+            });
+            case "import" -> {
+                if (!ctx.provided(fileArg)) {
+                    ctx.sendMessage(Message.raw(state.formatMessage("Usage: /neondata import <file>")));
+                    return;
+                }
+                String file = ctx.get(fileArg);
+                state.importData(file).whenComplete((imported, error) -> {
+                    if (Boolean.TRUE.equals(imported)) {
+                        ctx.sendMessage(Message.raw(state.formatMessage("Runner data imported from " + file + ".")));
+                    }
+                    else {
+                        ctx.sendMessage(Message.raw(state.formatMessage("Import failed. Check the file name and logs.")));
+                    }
+                });
+            }
+            default -> ctx.sendMessage(Message.raw(state.formatMessage("Usage: /neondata [export|import] <file>")));
+        }
+    }
+}
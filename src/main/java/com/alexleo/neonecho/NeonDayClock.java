@@ -0,0 +1,71 @@
+package com.alexleo.neonecho;
+
+import java.time.DateTimeException;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.ZoneId;
+
+/**
+ * The current day as an epoch-day number in the configured time zone. The day and the instants it starts and
+ * ends are cached, so {@link #today} is a clock read and a range check until midnight passes.
+ */
+public final class NeonDayClock {
+    private final ZoneId zone;
+    private volatile Day current;
+
+    public NeonDayClock(ZoneId zone) {
+        this.zone = zone;
+        this.current = dayAt(System.currentTimeMillis());
+    }
+
+    /**
+     * Resolves a zone id from the config, falling back to the server's zone if it is missing or unknown.
+     */
+    public static ZoneId zoneOf(String id) {
+        if (id == null || id.isBlank()) {
+            return ZoneId.systemDefault();
+        }
+        try {
+            return ZoneId.of(id.trim());
+        }
+        catch (DateTimeException ex) {
+            return ZoneId.systemDefault();
+        }
+    }
+
+    public ZoneId zone() {
+        return zone;
+    }
+
+    public int today() {
+        return current(System.currentTimeMillis()).epochDay();
+    }
+
+    /**
+     * Hours since today's midnight, 0 to 23. On a daylight-saving change day this counts elapsed hours, so it can
+     * be an hour off the wall clock for the rest of that day.
+     */
+    public int hourOfDay() {
+        long now = System.currentTimeMillis();
+        return (int) Math.min(23L, (now - current(now).startsAt()) / 3_600_000L);
+    }
+
+    private Day current(long now) {
+        Day day = current;
+        if (now >= day.endsAt() || now < day.startsAt()) {
+            day = dayAt(now);
+            current = day;
+        }
+        return day;
+    }
+
+    private Day dayAt(long millis) {
+        LocalDate date = Instant.ofEpochMilli(millis).atZone(zone).toLocalDate();
+        long startsAt = date.atStartOfDay(zone).toInstant().toEpochMilli();
+        long endsAt = date.plusDays(1).atStartOfDay(zone).toInstant().toEpochMilli();
+        return new Day((int) date.toEpochDay(), startsAt, endsAt);
+    }
+
+    private record Day(int epochDay, long startsAt, long endsAt) {
+    }
+}
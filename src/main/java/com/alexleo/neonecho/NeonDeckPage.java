@@ -15,10 +15,8 @@ import com.hypixel.hytale.server.core.universe.PlayerRef;
 import com.hypixel.hytale.server.core.universe.world.storage.EntityStore;
 
 import java.util.ArrayList;
-import java.util.HashMap;
 import java.util.List;
 import java.util.Locale;
-import java.util.Map;
 import java.util.UUID;
 
 public final class NeonDeckPage extends InteractiveCustomUIPage<NeonDeckPage.NeonDeckEventData> {
@@ -224,19 +222,18 @@ public final class NeonDeckPage extends InteractiveCustomUIPage<NeonDeckPage.Neo
         }
         long cooldown = state.getCooldownRemainingMillis(playerId);
         if (cooldown > 0) {
-            Map<String, String> tokens = new HashMap<>();
-            tokens.put("cooldown", Long.toString(Math.max(1L, cooldown / 1000L)));
-            netrunStatus = formatLines(state.getNetrunCooldownLines(), tokens);
+            NeonMessageTemplate.Tokens tokens = new NeonMessageTemplate.Tokens().cooldown(Math.max(1L, cooldown / 1000L));
+            netrunStatus = NeonMessageTemplate.renderLines(state.getNetrunCooldownLines(), tokens);
             return;
         }
 
         String tierName = tierInput.isBlank() ? null : tierInput;
         String riskName = riskInput.isBlank() ? null : riskInput;
-        if (tierName != null && !isTierName(tierName)) {
+        if (tierName != null && !state.isNetrunTier(tierName)) {
             netrunStatus = "Unknown tier: " + tierName + ".";
             return;
         }
-        if (riskName != null && !isRiskName(riskName)) {
+        if (riskName != null && !state.isNetrunRisk(riskName)) {
             netrunStatus = "Unknown risk: " + riskName + ".";
             return;
         }
@@ -247,14 +244,13 @@ public final class NeonDeckPage extends InteractiveCustomUIPage<NeonDeckPage.Neo
         NeonEchoState.NetrunSession session = state.createSession(playerId, tier, risk, 1, 0, now);
         state.startSession(playerId, session);
 
-        Map<String, String> tokens = new HashMap<>();
-        tokens.put("code", session.getCode());
-        tokens.put("seconds", Integer.toString(session.getStageTimeoutSeconds()));
-        tokens.put("tier", tier.name());
-        tokens.put("stage", Integer.toString(session.getStage()));
-        tokens.put("stages", Integer.toString(session.getStages()));
-        tokens.put("risk", risk.name());
-        netrunStatus = formatLines(state.getNetrunStartLines(), tokens);
+        NeonMessageTemplate.Tokens tokens = new NeonMessageTemplate.Tokens()
+                .code(session.getCode())
+                .seconds(session.getStageTimeoutSeconds())
+                .tier(tier.name())
+                .stage(session.getStage(), session.getStages())
+                .risk(risk.name());
+        netrunStatus = NeonMessageTemplate.renderLines(state.getNetrunStartLines(), tokens);
     }
 
     private void handleNetrunSubmit() {
@@ -298,13 +294,13 @@ public final class NeonDeckPage extends InteractiveCustomUIPage<NeonDeckPage.Neo
             }
             state.addCred(playerId, reward);
 
-            Map<String, String> tokens = new HashMap<>();
-            tokens.put("cred", Integer.toString(reward));
-            tokens.put("cooldown", Integer.toString(cooldown));
-            tokens.put("tier", tier.name());
-            tokens.put("streak", Integer.toString(streak));
-            tokens.put("risk", risk.name());
-            netrunStatus = formatLines(state.getNetrunSuccessLines(), tokens);
+            NeonMessageTemplate.Tokens tokens = new NeonMessageTemplate.Tokens()
+                    .cred(reward)
+                    .cooldown(cooldown)
+                    .tier(tier.name())
+                    .streak(streak)
+                    .risk(risk.name());
+            netrunStatus = NeonMessageTemplate.renderLines(state.getNetrunSuccessLines(), tokens);
             if (bonus > 0) {
                 netrunStatus += "\nEvent bonus: +" + bonus + " cred.";
             }
@@ -327,11 +323,11 @@ public final class NeonDeckPage extends InteractiveCustomUIPage<NeonDeckPage.Neo
             state.addCred(playerId, -penalty);
         }
 
-        Map<String, String> tokens = new HashMap<>();
-        tokens.put("cooldown", Integer.toString(cooldown));
-        tokens.put("tier", tier.name());
-        tokens.put("risk", risk.name());
-        netrunStatus = formatLines(state.getNetrunFailLines(), tokens);
+        NeonMessageTemplate.Tokens tokens = new NeonMessageTemplate.Tokens()
+                .cooldown(cooldown)
+                .tier(tier.name())
+                .risk(risk.name());
+        netrunStatus = NeonMessageTemplate.renderLines(state.getNetrunFailLines(), tokens);
         if (penalty > 0) {
             netrunStatus += "\nStreet Cred lost: -" + penalty + ".";
         }
@@ -477,31 +473,28 @@ public final class NeonDeckPage extends InteractiveCustomUIPage<NeonDeckPage.Neo
             return;
         }
 
-        long secondsLeft = event.expiresAt != null ? Math.max(0L, (event.expiresAt - now) / 1000L) : 0L;
-        String headline = event.name != null ? event.name : "Neon Alert";
-        String description = event.description != null ? event.description : "";
+        NeonEventDef def = event.def();
+        long secondsLeft = Math.max(0L, (event.expiresAt - now) / 1000L);
+        String headline = def.name();
+        String description = def.description();
         builder.set("#AlertStatus.Text", headline + (description.isBlank() ? "" : " - " + description));
 
         List<String> metaLines = new ArrayList<>();
         metaLines.add("Time left: " + secondsLeft + "s");
-        if (event.type != null) {
-            metaLines.add("Type: " + event.type);
+        metaLines.add("Type: " + def.typeName());
+        if (def.bonusCred() > 0) {
+            metaLines.add("Bonus: +" + def.bonusCred() + " cred");
         }
-        if (event.bonusCred != null && event.bonusCred > 0) {
-            metaLines.add("Bonus: +" + event.bonusCred + " cred");
-        }
-        if (event.dropCred != null && event.dropCred > 0) {
-            metaLines.add("Drop: +" + event.dropCred + " cred");
-        }
-        if (event.usesRemaining != null) {
-            metaLines.add("Uses: " + event.usesRemaining);
+        if (def.dropCred() > 0) {
+            metaLines.add("Drop: +" + def.dropCred() + " cred");
         }
+        metaLines.add("Uses: " + event.usesRemaining);
         if (alertStatus != null) {
             metaLines.add(alertStatus);
         }
         builder.set("#AlertMeta.Text", String.join(" | ", metaLines));
 
-        boolean canClaim = "drop".equalsIgnoreCase(event.type) && event.dropCred != null && event.dropCred > 0;
+        boolean canClaim = def.type() == NeonEventDef.Type.DROP && def.dropCred() > 0;
         builder.set("#AlertClaim.Disabled", !canClaim);
         builder.set("#AlertClaim.Visible", canClaim);
     }
@@ -517,43 +510,6 @@ public final class NeonDeckPage extends InteractiveCustomUIPage<NeonDeckPage.Neo
         }
     }
 
-    private boolean isTierName(String input) {
-        for (String tier : state.getNetrunTierNames()) {
-            if (tier.equalsIgnoreCase(input)) {
-                return true;
-            }
-        }
-        return false;
-    }
-
-    private boolean isRiskName(String input) {
-        for (String risk : state.getNetrunRiskNames()) {
-            if (risk.equalsIgnoreCase(input)) {
-                return true;
-            }
-        }
-        return false;
-    }
-
-    private String formatLines(List<String> lines, Map<String, String> tokens) {
-        if (lines == null || lines.isEmpty()) {
-            return "";
-        }
-        List<String> formatted = new ArrayList<>();
-        for (String line : lines) {
-            formatted.add(applyTokens(line, tokens));
-        }
-        return String.join("\n", formatted);
-    }
-
-    private String applyTokens(String line, Map<String, String> tokens) {
-        String result = line;
-        for (Map.Entry<String, String> entry : tokens.entrySet()) {
-            result = result.replace("{" + entry.getKey() + "}", entry.getValue());
-        }
-        return result;
-    }
-
     public static final class NeonDeckEventData {
         static final String KEY_TAB = "Tab";
         static final String KEY_ACTION = "Action";
@@ -11,6 +11,7 @@ public final class NeonEchoConfig {
     public Integer chatCred;
     public Integer chatCredCooldownSeconds;
     public Integer chatMinChars;
+    public Integer chatBatchMillis;
 
     public Integer onlineCred;
     public Integer onlineCredIntervalSeconds;
@@ -32,6 +33,7 @@ public final class NeonEchoConfig {
     public List<RiskProfileConfig> netrunRisks;
 
     public Integer credTopLimit;
+    public Integer leaderboardSeasonDays;
 
     public List<TitleRank> titles;
 
@@ -42,6 +44,7 @@ public final class NeonEchoConfig {
     public Boolean eventsEnabled;
     public Integer eventIntervalSeconds;
     public Double eventChance;
+    public String eventMode;
     public List<EventConfig> events;
 
     public Boolean dailyEnabled;
@@ -49,6 +52,18 @@ public final class NeonEchoConfig {
     public Integer dailyObjectivesPerDay;
     public Boolean dailyRandomizeObjectives;
     public List<DailyObjectiveConfig> dailyObjectivePool;
+    public String dailyTimezone;
+    public Integer dailyRolloverChunk;
+
+    public Boolean journalEnabled;
+    public Integer journalFlushMillis;
+    public Integer journalCompactSeconds;
+    public Integer playerEvictSeconds;
+    public Integer transientStateCap;
+    public String storageFormat;
+    public String snapshotFsync;
+    public Integer snapshotFsyncSeconds;
+    public Integer snapshotGenerations;
 
     public List<String> netrunStartLines;
     public List<String> netrunSuccessLines;
@@ -64,6 +79,7 @@ public final class NeonEchoConfig {
         config.chatCred = 1;
         config.chatCredCooldownSeconds = 30;
         config.chatMinChars = 6;
+        config.chatBatchMillis = 50;
         config.onlineCred = 1;
         config.onlineCredIntervalSeconds = 300;
         config.netrunCooldownSeconds = 90;
@@ -81,6 +97,7 @@ public final class NeonEchoConfig {
         config.netrunTiers = defaultNetrunTiers(config);
         config.netrunRisks = defaultRiskProfiles();
         config.credTopLimit = 5;
+        config.leaderboardSeasonDays = 28;
         config.titles = defaultTitles();
         config.perksEnabled = true;
         config.perkSlots = 2;
@@ -88,12 +105,24 @@ public final class NeonEchoConfig {
         config.eventsEnabled = true;
         config.eventIntervalSeconds = 300;
         config.eventChance = 0.35;
+        config.eventMode = "player";
         config.events = defaultEvents();
         config.dailyEnabled = true;
         config.dailyReward = 8;
         config.dailyObjectivesPerDay = 3;
         config.dailyRandomizeObjectives = false;
         config.dailyObjectivePool = defaultDailyObjectives();
+        config.dailyTimezone = "";
+        config.dailyRolloverChunk = 250;
+        config.journalEnabled = true;
+        config.journalFlushMillis = 100;
+        config.journalCompactSeconds = 60;
+        config.playerEvictSeconds = 300;
+        config.transientStateCap = 10000;
+        config.storageFormat = "binary";
+        config.snapshotFsync = "interval";
+        config.snapshotFsyncSeconds = 30;
+        config.snapshotGenerations = 3;
         config.netrunStartLines = new ArrayList<>(theme.getNetrunStartLines());
         config.netrunSuccessLines = new ArrayList<>(theme.getNetrunSuccessLines());
         config.netrunFailLines = new ArrayList<>(theme.getNetrunFailLines());
@@ -121,6 +150,9 @@ public final class NeonEchoConfig {
         if (this.chatMinChars == null) {
             this.chatMinChars = 6;
         }
+        if (this.chatBatchMillis == null) {
+            this.chatBatchMillis = 50;
+        }
         if (this.onlineCred == null) {
             this.onlineCred = 1;
         }
@@ -172,6 +204,9 @@ public final class NeonEchoConfig {
         if (this.credTopLimit == null) {
             this.credTopLimit = 5;
         }
+        if (this.leaderboardSeasonDays == null) {
+            this.leaderboardSeasonDays = 28;
+        }
         if (this.titles == null || this.titles.isEmpty()) {
             this.titles = defaultTitles();
         }
@@ -193,6 +228,9 @@ public final class NeonEchoConfig {
         if (this.eventChance == null) {
             this.eventChance = 0.35;
         }
+        if (this.eventMode == null || this.eventMode.isBlank()) {
+            this.eventMode = "player";
+        }
         if (this.events == null || this.events.isEmpty()) {
             this.events = defaultEvents();
         }
@@ -211,6 +249,39 @@ public final class NeonEchoConfig {
         if (this.dailyObjectivePool == null || this.dailyObjectivePool.isEmpty()) {
             this.dailyObjectivePool = defaultDailyObjectives();
         }
+        if (this.dailyTimezone == null) {
+            this.dailyTimezone = "";
+        }
+        if (this.dailyRolloverChunk == null) {
+            this.dailyRolloverChunk = 250;
+        }
+        if (this.journalEnabled == null) {
+            this.journalEnabled = true;
+        }
+        if (this.journalFlushMillis == null) {
+            this.journalFlushMillis = 100;
+        }
+        if (this.journalCompactSeconds == null) {
+            this.journalCompactSeconds = 60;
+        }
+        if (this.playerEvictSeconds == null) {
+            this.playerEvictSeconds = 300;
+        }
+        if (this.transientStateCap == null) {
+            this.transientStateCap = 10000;
+        }
+        if (this.storageFormat == null || this.storageFormat.isBlank()) {
+            this.storageFormat = "binary";
+        }
+        if (this.snapshotFsync == null || this.snapshotFsync.isBlank()) {
+            this.snapshotFsync = "interval";
+        }
+        if (this.snapshotFsyncSeconds == null) {
+            this.snapshotFsyncSeconds = 30;
+        }
+        if (this.snapshotGenerations == null) {
+            this.snapshotGenerations = 3;
+        }
         if (this.netrunStartLines == null) {
             this.netrunStartLines = new ArrayList<>(theme.getNetrunStartLines());
         }
@@ -414,6 +485,10 @@ public final class NeonEchoConfig {
         public Integer bonusCred;
         public Integer dropCred;
         public Integer maxTriggers;
+        public Double weight;
+        public List<String> titles;
+        public Integer fromHour;
+        public Integer toHour;
 
         public EventConfig() {
         }
@@ -1,86 +1,197 @@
 package com.alexleo.neonecho;
 
+import java.util.EnumMap;
+import java.util.HashSet;
 import java.util.Map;
-import java.util.concurrent.ConcurrentHashMap;
+import java.util.Set;
 
+/**
+ * On-disk and export shape of runner data: seventeen {@link NeonPersistentMap}s keyed by player UUID string.
+ * Writes go through {@link #put} and {@link #remove}. In memory, runners live as {@link NeonPlayerRecord}s.
+ * {@code dailyContracts} is only read, from saves made before contracts were derived.
+ */
 public final class NeonEchoData {
-    public Map<String, Integer> cred = new ConcurrentHashMap<>();
-    public Map<String, Integer> netrunWins = new ConcurrentHashMap<>();
-    public Map<String, Integer> netrunFails = new ConcurrentHashMap<>();
-    public Map<String, Integer> netrunStreak = new ConcurrentHashMap<>();
-    public Map<String, Integer> netrunBestStreak = new ConcurrentHashMap<>();
-    public Map<String, String> names = new ConcurrentHashMap<>();
-    public Map<String, Integer> dailyChatCount = new ConcurrentHashMap<>();
-    public Map<String, Integer> dailyNetrunWins = new ConcurrentHashMap<>();
-    public Map<String, Integer> dailyOnlineSeconds = new ConcurrentHashMap<>();
-    public Map<String, NeonDailyContract> dailyContracts = new ConcurrentHashMap<>();
-    public Map<String, NeonPerkLoadout> perkLoadouts = new ConcurrentHashMap<>();
-    public Map<String, NeonEventState> eventStates = new ConcurrentHashMap<>();
+    public Map<String, Integer> cred = NeonPersistentMap.empty();
+    public Map<String, Integer> netrunWins = NeonPersistentMap.empty();
+    public Map<String, Integer> netrunFails = NeonPersistentMap.empty();
+    public Map<String, Integer> netrunStreak = NeonPersistentMap.empty();
+    public Map<String, Integer> netrunBestStreak = NeonPersistentMap.empty();
+    public Map<String, String> names = NeonPersistentMap.empty();
+    public Map<String, Integer> dailyChatCount = NeonPersistentMap.empty();
+    public Map<String, Integer> dailyNetrunWins = NeonPersistentMap.empty();
+    public Map<String, Integer> dailyOnlineSeconds = NeonPersistentMap.empty();
+    public Map<String, NeonDailyContract> dailyContracts = NeonPersistentMap.empty();
+    public Map<String, NeonPerkLoadout> perkLoadouts = NeonPersistentMap.empty();
+    public Map<String, NeonEventState> eventStates = NeonPersistentMap.empty();
+    public Map<String, Integer> dailyDropClaims = NeonPersistentMap.empty();
+    public Map<String, Integer> dailyBestStreak = NeonPersistentMap.empty();
+    public Map<String, Integer> dailyDay = NeonPersistentMap.empty();
+    public Map<String, Integer> dailyClaimed = NeonPersistentMap.empty();
+    public Map<String, Long> credSequence = NeonPersistentMap.empty();
 
     public void normalize() {
-        if (cred == null) {
-            cred = new ConcurrentHashMap<>();
-        }
-        if (netrunWins == null) {
-            netrunWins = new ConcurrentHashMap<>();
-        }
-        if (netrunFails == null) {
-            netrunFails = new ConcurrentHashMap<>();
-        }
-        if (netrunStreak == null) {
-            netrunStreak = new ConcurrentHashMap<>();
-        }
-        if (netrunBestStreak == null) {
-            netrunBestStreak = new ConcurrentHashMap<>();
-        }
-        if (names == null) {
-            names = new ConcurrentHashMap<>();
-        }
-        if (dailyChatCount == null) {
-            dailyChatCount = new ConcurrentHashMap<>();
-        }
-        if (dailyNetrunWins == null) {
-            dailyNetrunWins = new ConcurrentHashMap<>();
+        cred = NeonPersistentMap.copyOf(cred);
+        netrunWins = NeonPersistentMap.copyOf(netrunWins);
+        netrunFails = NeonPersistentMap.copyOf(netrunFails);
+        netrunStreak = NeonPersistentMap.copyOf(netrunStreak);
+        netrunBestStreak = NeonPersistentMap.copyOf(netrunBestStreak);
+        names = NeonPersistentMap.copyOf(names);
+        dailyChatCount = NeonPersistentMap.copyOf(dailyChatCount);
+        dailyNetrunWins = NeonPersistentMap.copyOf(dailyNetrunWins);
+        dailyOnlineSeconds = NeonPersistentMap.copyOf(dailyOnlineSeconds);
+        dailyContracts = NeonPersistentMap.copyOf(dailyContracts);
+        perkLoadouts = NeonPersistentMap.copyOf(perkLoadouts);
+        eventStates = NeonPersistentMap.copyOf(eventStates);
+        dailyDropClaims = NeonPersistentMap.copyOf(dailyDropClaims);
+        dailyBestStreak = NeonPersistentMap.copyOf(dailyBestStreak);
+        dailyDay = NeonPersistentMap.copyOf(dailyDay);
+        dailyClaimed = NeonPersistentMap.copyOf(dailyClaimed);
+        credSequence = NeonPersistentMap.copyOf(credSequence);
+        for (NeonPerkLoadout loadout : perkLoadouts.values()) {
+            loadout.normalize();
         }
-        if (dailyOnlineSeconds == null) {
-            dailyOnlineSeconds = new ConcurrentHashMap<>();
+    }
+
+    public void put(Field field, String key, Object value) {
+        field.set(this, field.of(this).plus(key, value));
+    }
+
+    public void remove(Field field, String key) {
+        field.set(this, field.of(this).minus(key));
+    }
+
+    public Set<String> playerKeys() {
+        Set<String> keys = new HashSet<>();
+        for (Field field : Field.values()) {
+            keys.addAll(field.of(this).keySet());
         }
-        if (dailyContracts == null) {
-            dailyContracts = new ConcurrentHashMap<>();
+        return keys;
+    }
+
+    public void apply(Delta delta, Set<String> onlyKeys) {
+        for (Map.Entry<Field, Set<String>> entry : delta.keys().entrySet()) {
+            Field field = entry.getKey();
+            Map<String, Object> source = field.of(delta.values());
+            for (String key : entry.getValue()) {
+                if (onlyKeys != null && !onlyKeys.contains(key)) {
+                    continue;
+                }
+                Object value = source.get(key);
+                if (value != null) {
+                    put(field, key, value);
+                }
+                else {
+                    remove(field, key);
+                }
+            }
         }
-        if (perkLoadouts == null) {
-            perkLoadouts = new ConcurrentHashMap<>();
+    }
+
+    public void putAll(NeonEchoData other, Set<String> onlyKeys) {
+        for (Field field : Field.values()) {
+            if (onlyKeys == null) {
+                for (Map.Entry<String, Object> entry : field.of(other).entrySet()) {
+                    put(field, entry.getKey(), entry.getValue());
+                }
+                continue;
+            }
+            for (String key : onlyKeys) {
+                Object value = field.of(other).get(key);
+                if (value != null) {
+                    put(field, key, value);
+                }
+            }
         }
-        if (eventStates == null) {
-            eventStates = new ConcurrentHashMap<>();
+    }
+
+    /**
+     * Values for a set of changed keys. A key listed under a field with no value in {@code values} is removed
+     * from that field on disk.
+     */
+    public record Delta(NeonEchoData values, Map<Field, Set<String>> keys) {
+        public static Delta ofPlayers(NeonEchoData values, Set<String> players) {
+            Map<Field, Set<String>> keys = new EnumMap<>(Field.class);
+            for (Field field : Field.values()) {
+                keys.put(field, players);
+            }
+            return new Delta(values, keys);
         }
-        for (NeonPerkLoadout loadout : perkLoadouts.values()) {
-            if (loadout != null) {
-                loadout.normalize();
+
+        public Set<String> playerKeys() {
+            Set<String> players = new HashSet<>();
+            for (Set<String> fieldKeys : keys.values()) {
+                players.addAll(fieldKeys);
             }
+            return players;
         }
     }
 
-    public NeonEchoData copy() {
-        NeonEchoData copy = new NeonEchoData();
-        copy.cred.putAll(cred);
-        copy.netrunWins.putAll(netrunWins);
-        copy.netrunFails.putAll(netrunFails);
-        copy.netrunStreak.putAll(netrunStreak);
-        copy.netrunBestStreak.putAll(netrunBestStreak);
-        copy.names.putAll(names);
-        copy.dailyChatCount.putAll(dailyChatCount);
-        copy.dailyNetrunWins.putAll(dailyNetrunWins);
-        copy.dailyOnlineSeconds.putAll(dailyOnlineSeconds);
-        copy.dailyContracts.putAll(dailyContracts);
-        for (Map.Entry<String, NeonPerkLoadout> entry : perkLoadouts.entrySet()) {
-            NeonPerkLoadout loadout = entry.getValue();
-            copy.perkLoadouts.put(entry.getKey(), loadout != null ? loadout.copy() : null);
+    public enum Field {
+        CRED,
+        NETRUN_WINS,
+        NETRUN_FAILS,
+        NETRUN_STREAK,
+        NETRUN_BEST_STREAK,
+        NAMES,
+        DAILY_CHAT_COUNT,
+        DAILY_NETRUN_WINS,
+        DAILY_ONLINE_SECONDS,
+        DAILY_CONTRACTS,
+        PERK_LOADOUTS,
+        EVENT_STATES,
+        // Added later; kept last so snapshot field masks from before still line up.
+        DAILY_DROP_CLAIMS,
+        DAILY_BEST_STREAK,
+        DAILY_DAY,
+        DAILY_CLAIMED,
+        CRED_SEQUENCE;
+
+        @SuppressWarnings("unchecked")
+        NeonPersistentMap<String, Object> of(NeonEchoData data) {
+            Map<String, ?> map = switch (this) {
+                case CRED -> data.cred;
+                case NETRUN_WINS -> data.netrunWins;
+                case NETRUN_FAILS -> data.netrunFails;
+                case NETRUN_STREAK -> data.netrunStreak;
+                case NETRUN_BEST_STREAK -> data.netrunBestStreak;
+                case NAMES -> data.names;
+                case DAILY_CHAT_COUNT -> data.dailyChatCount;
+                case DAILY_NETRUN_WINS -> data.dailyNetrunWins;
+                case DAILY_ONLINE_SECONDS -> data.dailyOnlineSeconds;
+                case DAILY_CONTRACTS -> data.dailyContracts;
+                case PERK_LOADOUTS -> data.perkLoadouts;
+                case EVENT_STATES -> data.eventStates;
+                case DAILY_DROP_CLAIMS -> data.dailyDropClaims;
+                case DAILY_BEST_STREAK -> data.dailyBestStreak;
+                case DAILY_DAY -> data.dailyDay;
+                case DAILY_CLAIMED -> data.dailyClaimed;
+                case CRED_SEQUENCE -> data.credSequence;
+            };
+            return (NeonPersistentMap<String, Object>) map;
         }
-        for (Map.Entry<String, NeonEventState> entry : eventStates.entrySet()) {
-            NeonEventState eventState = entry.getValue();
-            copy.eventStates.put(entry.getKey(), eventState != null ? eventState.copy() : null);
+
+        @SuppressWarnings("unchecked")
+        void set(NeonEchoData data, NeonPersistentMap<String, Object> map) {
+            Map<String, ?> value = map;
+            switch (this) {
+                case CRED -> data.cred = (Map<String, Integer>) value;
+                case NETRUN_WINS -> data.netrunWins = (Map<String, Integer>) value;
+                case NETRUN_FAILS -> data.netrunFails = (Map<String, Integer>) value;
+                case NETRUN_STREAK -> data.netrunStreak = (Map<String, Integer>) value;
+                case NETRUN_BEST_STREAK -> data.netrunBestStreak = (Map<String, Integer>) value;
+                case NAMES -> data.names = (Map<String, String>) value;
+                case DAILY_CHAT_COUNT -> data.dailyChatCount = (Map<String, Integer>) value;
+                case DAILY_NETRUN_WINS -> data.dailyNetrunWins = (Map<String, Integer>) value;
+                case DAILY_ONLINE_SECONDS -> data.dailyOnlineSeconds = (Map<String, Integer>) value;
+                case DAILY_CONTRACTS -> data.dailyContracts = (Map<String, NeonDailyContract>) value;
+                case PERK_LOADOUTS -> data.perkLoadouts = (Map<String, NeonPerkLoadout>) value;
+                case EVENT_STATES -> data.eventStates = (Map<String, NeonEventState>) value;
+                case DAILY_DROP_CLAIMS -> data.dailyDropClaims = (Map<String, Integer>) value;
+                case DAILY_BEST_STREAK -> data.dailyBestStreak = (Map<String, Integer>) value;
+                case DAILY_DAY -> data.dailyDay = (Map<String, Integer>) value;
+                case DAILY_CLAIMED -> data.dailyClaimed = (Map<String, Integer>) value;
+                case CRED_SEQUENCE -> data.credSequence = (Map<String, Long>) value;
+            }
         }
-        return copy;
     }
 }
@@ -0,0 +1,298 @@
+package com.alexleo.neonecho;
+
+import com.google.gson.Gson;
+import com.google.gson.JsonParseException;
+import com.hypixel.hytale.logger.HytaleLogger;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Consumer;
+import java.util.logging.Level;
+
+/**
+ * Append-only log of runner mutations, one {@link NeonJournalEntry} per line. Appends are buffered in memory and
+ * written by a single writer thread in batches, one fsync per batch (group commit). Entries carry absolute values and
+ * replay in order. A flush only writes a snapshot after every entry behind it is durable, so replaying segments that
+ * are already folded into the snapshot ends on the snapshot's values or newer ones. Cred entries are also skipped when
+ * their sequence is not past the one saved with the balance.
+ */
+public final class NeonEchoJournal {
+    private static final String SEGMENT_PREFIX = "journal-";
+    private static final String SEGMENT_SUFFIX = ".log";
+    private static final int MAX_BATCH = 512;
+
+    private final HytaleLogger logger;
+    private final Gson gson;
+    private final Path journalDir;
+    private final long flushMillis;
+
+    private final Object queueLock = new Object();
+    private final Object ioLock = new Object();
+    private List<Object> pending = new ArrayList<>();
+    private long nextSegmentId;
+
+    private FileChannel channel;
+    private long segmentId;
+    private Thread writerThread;
+    private volatile boolean running;
+
+    public NeonEchoJournal(HytaleLogger logger, Gson gson, Path journalDir, long flushMillis) {
+        this.logger = logger;
+        this.gson = gson;
+        this.journalDir = journalDir;
+        this.flushMillis = Math.max(1L, flushMillis);
+    }
+
+    public void replay(Consumer<NeonJournalEntry> consumer) {
+        for (long id : listSegments()) {
+            Path segment = segmentPath(id);
+            try (BufferedReader reader = Files.newBufferedReader(segment, StandardCharsets.UTF_8)) {
+                String line;
+                while ((line = reader.readLine()) != null) {
+                    if (line.isBlank()) {
+                        continue;
+                    }
+                    NeonJournalEntry entry;
+                    try {
+                        entry = gson.fromJson(line, NeonJournalEntry.class);
+                    }
+                    catch (JsonParseException ex) {
+                        logger.at(Level.WARNING).log("Skipping torn NeonEcho journal record in " + segment.getFileName());
+                        continue;
+                    }
+                    if (entry != null) {
+                        consumer.accept(entry);
+                    }
+                }
+            }
+            catch (IOException ex) {
+                logger.at(Level.WARNING).log("Failed to replay NeonEcho journal " + segment.getFileName() + ": " + ex.getMessage());
+            }
+        }
+    }
+
+    public void start() throws IOException {
+        Files.createDirectories(journalDir);
+        List<Long> existing = listSegments();
+        long first = existing.isEmpty() ? 1L : existing.get(existing.size() - 1) + 1L;
+        synchronized (ioLock) {
+            openSegment(first);
+        }
+        synchronized (queueLock) {
+            nextSegmentId = first + 1L;
+        }
+        running = true;
+        writerThread = new Thread(this::runWriter, "neonecho-journal");
+        writerThread.setDaemon(true);
+        writerThread.start();
+    }
+
+    public void append(NeonJournalEntry entry) {
+        if (entry == null) {
+            return;
+        }
+        synchronized (queueLock) {
+            pending.add(entry);
+            if (pending.size() >= MAX_BATCH) {
+                queueLock.notifyAll();
+            }
+        }
+    }
+
+    public void appendAll(List<NeonJournalEntry> entries) {
+        if (entries.isEmpty()) {
+            return;
+        }
+        synchronized (queueLock) {
+            pending.addAll(entries);
+            if (pending.size() >= MAX_BATCH) {
+                queueLock.notifyAll();
+            }
+        }
+    }
+
+    /**
+     * Seals the current segment. Every entry appended before this call lands in a segment with id less than or
+     * equal to the returned value; callers apply a change before appending it and capture their snapshot after
+     * rolling.
+     */
+    public long roll() {
+        synchronized (queueLock) {
+            long sealed = nextSegmentId - 1L;
+            pending.add(new Roll(nextSegmentId));
+            nextSegmentId += 1L;
+            queueLock.notifyAll();
+            return sealed;
+        }
+    }
+
+    public void flush() {
+        synchronized (ioLock) {
+            drainAndWrite();
+        }
+    }
+
+    public void deleteThrough(long sealedId) {
+        flush();
+        for (long id : listSegments()) {
+            if (id > sealedId) {
+                continue;
+            }
+            try {
+                Files.deleteIfExists(segmentPath(id));
+            }
+            catch (IOException ex) {
+                logger.at(Level.WARNING).log("Failed to delete NeonEcho journal segment " + id + ": " + ex.getMessage());
+            }
+        }
+    }
+
+    public void close() {
+        running = false;
+        synchronized (queueLock) {
+            queueLock.notifyAll();
+        }
+        Thread thread = writerThread;
+        if (thread != null) {
+            try {
+                thread.join(flushMillis * 4L);
+            }
+            catch (InterruptedException ex) {
+                Thread.currentThread().interrupt();
+            }
+        }
+        synchronized (ioLock) {
+            drainAndWrite();
+            closeSegment();
+        }
+    }
+
+    private void runWriter() {
+        while (running) {
+            synchronized (queueLock) {
+                if (pending.isEmpty()) {
+                    try {
+                        queueLock.wait(flushMillis);
+                    }
+                    catch (InterruptedException ex) {
+                        Thread.currentThread().interrupt();
+                        return;
+                    }
+                }
+            }
+            try {
+                synchronized (ioLock) {
+                    drainAndWrite();
+                }
+            }
+            catch (RuntimeException ex) {
+                logger.at(Level.WARNING).log("NeonEcho journal writer failed: " + ex.getMessage());
+            }
+        }
+    }
+
+    private void drainAndWrite() {
+        List<Object> batch;
+        synchronized (queueLock) {
+            if (pending.isEmpty()) {
+                return;
+            }
+            batch = pending;
+            pending = new ArrayList<>();
+        }
+        StringBuilder buffer = new StringBuilder(batch.size() * 96);
+        for (Object item : batch) {
+            if (item instanceof Roll roll) {
+                writeBuffer(buffer);
+                closeSegment();
+                openSegment(roll.nextSegmentId());
+                continue;
+            }
+            buffer.append(gson.toJson(item)).append('\n');
+        }
+        writeBuffer(buffer);
+    }
+
+    private void writeBuffer(StringBuilder buffer) {
+        if (buffer.isEmpty() || channel == null) {
+            buffer.setLength(0);
+            return;
+        }
+        ByteBuffer bytes = ByteBuffer.wrap(buffer.toString().getBytes(StandardCharsets.UTF_8));
+        buffer.setLength(0);
+        try {
+            while (bytes.hasRemaining()) {
+                channel.write(bytes);
+            }
+            channel.force(false);
+        }
+        catch (IOException ex) {
+            logger.at(Level.WARNING).log("Failed to write NeonEcho journal: " + ex.getMessage());
+        }
+    }
+
+    private void openSegment(long id) {
+        try {
+            channel = FileChannel.open(segmentPath(id), StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+                    StandardOpenOption.APPEND);
+            segmentId = id;
+        }
+        catch (IOException ex) {
+            channel = null;
+            logger.at(Level.WARNING).log("Failed to open NeonEcho journal segment " + id + ": " + ex.getMessage());
+        }
+    }
+
+    private void closeSegment() {
+        if (channel == null) {
+            return;
+        }
+        try {
+            channel.force(false);
+            channel.close();
+        }
+        catch (IOException ex) {
+            logger.at(Level.WARNING).log("Failed to close NeonEcho journal segment " + segmentId + ": " + ex.getMessage());
+        }
+        channel = null;
+    }
+
+    private List<Long> listSegments() {
+        List<Long> ids = new ArrayList<>();
+        if (!Files.isDirectory(journalDir)) {
+            return ids;
+        }
+        try (DirectoryStream<Path> stream = Files.newDirectoryStream(journalDir, SEGMENT_PREFIX + "*" + SEGMENT_SUFFIX)) {
+            for (Path path : stream) {
+                String fileName = path.getFileName().toString();
+                String id = fileName.substring(SEGMENT_PREFIX.length(), fileName.length() - SEGMENT_SUFFIX.length());
+                try {
+                    ids.add(Long.parseLong(id));
+                }
+                catch (NumberFormatException ignored) {
+                }
+            }
+        }
+        catch (IOException ex) {
+            logger.at(Level.WARNING).log("Failed to list NeonEcho journal segments: " + ex.getMessage());
+        }
+        ids.sort(Long::compare);
+        return ids;
+    }
+
+    private Path segmentPath(long id) {
+        return journalDir.resolve(SEGMENT_PREFIX + id + SEGMENT_SUFFIX);
+    }
+
+    private record Roll(long nextSegmentId) {
+    }
+}
@@ -7,12 +7,10 @@ import com.hypixel.hytale.server.core.event.events.player.PlayerConnectEvent;
 import com.hypixel.hytale.server.core.event.events.player.PlayerDisconnectEvent;
 import com.hypixel.hytale.server.core.plugin.JavaPlugin;
 import com.hypixel.hytale.server.core.plugin.JavaPluginInit;
+import com.hypixel.hytale.server.core.universe.PlayerRef;
 
 import javax.annotation.Nonnull;
-import java.util.concurrent.Executors;
-import java.util.concurrent.ScheduledExecutorService;
 import java.util.concurrent.ScheduledFuture;
-import java.util.concurrent.TimeUnit;
 import java.util.logging.Level;
 
 /**
@@ -23,7 +21,8 @@ public class NeonEchoPlugin extends JavaPlugin {
 
     private static final HytaleLogger LOGGER = HytaleLogger.forEnclosingClass();
     private final NeonEchoState state;
-    private final ScheduledExecutorService scheduler;
+    private final NeonTickScheduler ticks;
+    private NeonChatIngest chatIngest;
 
     public NeonEchoPlugin(@Nonnull JavaPluginInit init) {
         super(init);
@@ -33,11 +32,7 @@ public class NeonEchoPlugin extends JavaPlugin {
                 LOGGER,
                 this.getDataDirectory()
         );
-        this.scheduler = Executors.newSingleThreadScheduledExecutor(r -> {
-            Thread thread = new Thread(r, "neonecho-tasks");
-            thread.setDaemon(true);
-            return thread;
-        });
+        this.ticks = new NeonTickScheduler(LOGGER);
         LOGGER.atInfo().log("Hello from " + this.getName() + " version " + this.getManifest().getVersion().toString());
     }
 
@@ -47,7 +42,7 @@ public class NeonEchoPlugin extends JavaPlugin {
         state.load();
         this.getCommandRegistry().registerCommand(new NetrunCommand(state));
         this.getCommandRegistry().registerCommand(new NeonHelpCommand(state));
-        this.getCommandRegistry().registerCommand(new NeonStatusCommand(state));
+        this.getCommandRegistry().registerCommand(new NeonStatusCommand(state, ticks));
         this.getCommandRegistry().registerCommand(new NeonMuteCommand(state));
         this.getCommandRegistry().registerCommand(new NeonCredCommand(state));
         this.getCommandRegistry().registerCommand(new NeonCredTopCommand(state));
@@ -61,23 +56,32 @@ public class NeonEchoPlugin extends JavaPlugin {
         this.getCommandRegistry().registerCommand(new NeonDropCommand(state));
         this.getCommandRegistry().registerCommand(new NeonDeckCommand(state));
         this.getCommandRegistry().registerCommand(new NeonReloadCommand(state));
+        this.getCommandRegistry().registerCommand(new NeonDataCommand(state));
         this.getEventRegistry().register(PlayerConnectEvent.class, event -> {
-            state.markOnline(event.getPlayerRef(), true);
-            state.recordPlayerName(event.getPlayerRef().getUuid(), event.getPlayerRef().getUsername());
-            state.prepareDaily(event.getPlayerRef().getUuid());
-            if (!state.isMuted(event.getPlayerRef().getUuid())) {
-                String joinMessage = state.getJoinMessage();
-                if (joinMessage != null && !joinMessage.isBlank()) {
-                    event.getPlayer().sendMessage(Message.raw(state.formatMessage(joinMessage)));
+            PlayerRef ref = event.getPlayerRef();
+            state.markOnline(ref, true);
+            state.loadPlayerAsync(ref.getUuid()).thenRun(() -> {
+                state.recordPlayerName(ref.getUuid(), ref.getUsername());
+                state.prepareDaily(ref.getUuid());
+                if (!state.isMuted(ref.getUuid())) {
+                    String joinMessage = state.getJoinMessage();
+                    if (joinMessage != null && !joinMessage.isBlank()) {
+                        ref.sendMessage(Message.raw(state.formatMessage(joinMessage)));
+                    }
+                    String title = state.getTitle(ref.getUuid());
+                    int cred = state.getCred(ref.getUuid());
+                    ref.sendMessage(Message.raw(state.formatMessage("Runner tag: " + title + " | Cred " + cred + ".")));
                 }
-                String title = state.getTitle(event.getPlayerRef().getUuid());
-                int cred = state.getCred(event.getPlayerRef().getUuid());
-                event.getPlayer().sendMessage(Message.raw(state.formatMessage("Runner tag: " + title + " | Cred " + cred + ".")));
-            }
+            }).exceptionally(ex -> {
+                LOGGER.at(Level.WARNING).log("Failed to load NeonEcho runner " + ref.getUuid() + ": " + ex.getMessage());
+                return null;
+            });
         });
         this.getEventRegistry().register(PlayerDisconnectEvent.class, event -> {
             state.markOnline(event.getPlayerRef(), false);
         });
+        NeonChatIngest chatIngest = new NeonChatIngest(state);
+        this.chatIngest = chatIngest;
         this.getEventRegistry().registerAsyncGlobal(PlayerChatEvent.class, future -> future.thenApply(event -> {
             if (event == null || event.getSender() == null) {
                 return event;
@@ -85,41 +89,31 @@ public class NeonEchoPlugin extends JavaPlugin {
             if (event.isCancelled()) {
                 return event;
             }
-            state.recordPlayerName(event.getSender().getUuid(), event.getSender().getUsername());
-            state.tryAwardChatCred(event.getSender().getUuid(), event.getContent());
-            state.recordChat(event.getSender().getUuid());
+            chatIngest.submit(event.getSender().getUuid(), event.getSender().getUsername(), event.getContent());
             return event;
         }));
 
-        ScheduledFuture<?> credFuture = scheduler.scheduleAtFixedRate(() -> {
-            try {
-                state.tickOnline(30);
-            }
-            catch (Exception ex) {
-                LOGGER.at(Level.WARNING).log("NeonEcho cred tick failed: " + ex.getMessage());
-            }
-        }, 30, 30, TimeUnit.SECONDS);
-        registerTask(credFuture);
-
-        ScheduledFuture<?> saveFuture = scheduler.scheduleAtFixedRate(() -> {
-            try {
-                state.saveData();
-            }
-            catch (Exception ex) {
-                LOGGER.at(Level.WARNING).log("NeonEcho save failed: " + ex.getMessage());
-            }
-        }, 60, 60, TimeUnit.SECONDS);
-        registerTask(saveFuture);
+        // Game ticks and saves run on separate lanes so a slow disk never delays cred, events or expiries.
+        int chatBatchMillis = state.getChatBatchMillis();
+        registerTask(ticks.schedule("chat ingest", NeonTickScheduler.Lane.GAME, chatBatchMillis, 50L,
+                chatIngest::drain));
+        registerTask(ticks.schedule("expiry", NeonTickScheduler.Lane.GAME, 1000L, 50L, state::tickExpirations));
+        registerTask(ticks.schedule("cred", NeonTickScheduler.Lane.GAME, 30_000L, 250L, () -> state.tickOnline(30)));
+        registerTask(ticks.schedule("daily rollover", NeonTickScheduler.Lane.GAME, 1000L, 50L,
+                state::tickDailyRollover));
+        registerTask(ticks.schedule("save", NeonTickScheduler.Lane.IO, state.getSaveIntervalSeconds() * 1000L, 2000L,
+                () -> state.saveData().join()));
+    }
 
-        ScheduledFuture<?> eventFuture = scheduler.scheduleAtFixedRate(() -> {
-            try {
-                state.tickEvents();
-            }
-            catch (Exception ex) {
-                LOGGER.at(Level.WARNING).log("NeonEcho events tick failed: " + ex.getMessage());
-            }
-        }, 60, 60, TimeUnit.SECONDS);
-        registerTask(eventFuture);
+    @Override
+    protected void shutdown() {
+        LOGGER.atInfo().log("Shutting down plugin " + this.getName());
+        // Stop the ticks first so no save or tick races the final flush.
+        ticks.shutdown();
+        if (chatIngest != null) {
+            chatIngest.drain();
+        }
+        state.shutdown();
     }
 
     @SuppressWarnings("unchecked")
@@ -2,6 +2,7 @@ package com.alexleo.neonecho;
 
 import com.google.gson.Gson;
 import com.google.gson.GsonBuilder;
+import com.google.gson.JsonParseException;
 import com.hypixel.hytale.logger.HytaleLogger;
 import com.hypixel.hytale.server.core.Message;
 import com.hypixel.hytale.server.core.universe.PlayerRef;
@@ -12,22 +13,40 @@ import java.io.Writer;
 import java.nio.charset.StandardCharsets;
 import java.nio.file.Files;
 import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
 import java.time.Duration;
-import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.time.format.DateTimeFormatter;
 import java.util.ArrayList;
 import java.util.Collections;
-import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Iterator;
 import java.util.List;
 import java.util.Locale;
 import java.util.Map;
 import java.util.Set;
 import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
 import java.util.concurrent.ThreadLocalRandom;
 import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.IntUnaryOperator;
+import java.util.function.Supplier;
 import java.util.logging.Level;
 
 public final class NeonEchoState {
+    private static final int LOCK_STRIPES = 64;
+    private static final int DEFAULT_TRANSIENT_CAP = 10000;
+    private static final int SWEEP_BUDGET = 256;
+    // Swept entries are a few ticks stale so the timing wheel gets to clear, and announce, them first.
+    private static final long SWEEP_GRACE_MILLIS = 5000L;
+
     private final String name;
     private final String version;
     private final long startMillis;
@@ -35,34 +54,71 @@ public final class NeonEchoState {
 
     private final HytaleLogger logger;
     private final Gson gson;
+    private final Gson journalGson;
     private final Path dataDir;
     private final Path configPath;
     private final Path dataPath;
-
-    private final Object dataLock = new Object();
-    private NeonEchoData data = new NeonEchoData();
-    private volatile NeonEchoConfig config;
-
-    private final Map<UUID, Long> netrunCooldowns = new ConcurrentHashMap<>();
-    private final Map<UUID, NetrunSession> netrunSessions = new ConcurrentHashMap<>();
-    private final Map<UUID, Long> chatCredCooldowns = new ConcurrentHashMap<>();
+    private final Path journalDir;
+    private final Path exportDir;
+    private volatile NeonEchoStore store;
+    private volatile NeonSnapshotWriter writer;
+    private volatile NeonEchoJournal journal;
+    private volatile boolean fullRewrite;
+
+    private final Object[] playerLocks = new Object[LOCK_STRIPES];
+    private final AtomicReference<NeonPersistentMap<UUID, NeonPlayerRecord>> players =
+            new AtomicReference<>(NeonPersistentMap.empty());
+    private final Set<UUID> dirtyPlayers = ConcurrentHashMap.newKeySet();
+    private final AtomicLong credSequence = new AtomicLong();
+    // Bumped when an import replaces the player map, so a page-in that read the store before then starts over.
+    private volatile long dataEpoch;
+    private volatile NeonCompiledConfig config;
+
+    private final NeonExpiringMap<UUID, Long> netrunCooldowns = new NeonExpiringMap<>(DEFAULT_TRANSIENT_CAP, false);
+    private final NeonExpiringMap<UUID, NetrunSession> netrunSessions = new NeonExpiringMap<>(DEFAULT_TRANSIENT_CAP, false);
+    // Losing a chat cooldown only lets a runner earn chat cred a little early, so this one may evict live entries.
+    private final NeonExpiringMap<UUID, Long> chatCredCooldowns = new NeonExpiringMap<>(DEFAULT_TRANSIENT_CAP, true);
     private final Set<UUID> onlinePlayers = ConcurrentHashMap.newKeySet();
     private final Map<UUID, PlayerRef> onlineRefs = new ConcurrentHashMap<>();
     private final AtomicLong lastOnlineCredAt = new AtomicLong();
-    private final Map<UUID, Long> eventRolls = new ConcurrentHashMap<>();
+    private final NeonExpiringMap<UUID, Long> alertSchedule = new NeonExpiringMap<>(DEFAULT_TRANSIENT_CAP, false);
+    private final Map<UUID, Long> evictAt = new ConcurrentHashMap<>();
+    private volatile NeonDayClock dayClock = new NeonDayClock(ZoneId.systemDefault());
+    private volatile NeonLeaderboards leaderboards = new NeonLeaderboards(28, dayClock.today());
+    private final Map<String, String> runnerNames = new ConcurrentHashMap<>();
+    private final Map<UUID, CachedPerkEffects> perkEffects = new ConcurrentHashMap<>();
+    private volatile NeonGlobalAlert globalAlert;
+    private final AtomicLong globalAlertSerial = new AtomicLong();
+    private volatile long globalAlertDue;
+    private volatile boolean globalAlertDirty;
+    private int rolloverDay = Integer.MIN_VALUE;
+    private Iterator<UUID> rolloverQueue;
+    private final NeonTimingWheel<Expiry> expiries = new NeonTimingWheel<>(1000L, 512, System.currentTimeMillis());
+    private final ExecutorService ioExecutor;
 
     public NeonEchoState(String name, String version, HytaleLogger logger, Path dataDir) {
         this.name = name;
         this.version = version;
         this.logger = logger;
         this.gson = new GsonBuilder().setPrettyPrinting().create();
+        this.journalGson = new Gson();
         this.dataDir = dataDir;
         this.configPath = dataDir.resolve("config.json");
         this.dataPath = dataDir.resolve("data.json");
+        this.journalDir = dataDir.resolve("journal");
+        this.exportDir = dataDir.resolve("exports");
+        this.ioExecutor = Executors.newSingleThreadExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "neonecho-io");
+            thread.setDaemon(true);
+            return thread;
+        });
+        for (int i = 0; i < playerLocks.length; i++) {
+            playerLocks[i] = new Object();
+        }
         this.startMillis = System.currentTimeMillis();
         ensureDataDirectory();
         NeonEchoTheme theme = NeonEchoThemes.get("neon");
-        this.config = NeonEchoConfig.defaultConfig(theme);
+        this.config = NeonCompiledConfig.compile(NeonEchoConfig.defaultConfig(theme));
     }
 
     public void load() {
@@ -89,7 +145,22 @@ public final class NeonEchoState {
         else {
             loaded.applyDefaults(theme);
         }
-        this.config = loaded;
+        this.config = NeonCompiledConfig.compile(loaded);
+        perkEffects.clear();
+        ZoneId zone = NeonDayClock.zoneOf(loaded.dailyTimezone);
+        if (!zone.equals(dayClock.zone())) {
+            dayClock = new NeonDayClock(zone);
+        }
+        long now = System.currentTimeMillis();
+        scheduleGlobalAlert(now);
+        for (UUID playerId : onlinePlayers) {
+            scheduleAlert(playerId, now);
+        }
+        int cap = loaded.transientStateCap != null ? loaded.transientStateCap : DEFAULT_TRANSIENT_CAP;
+        netrunCooldowns.setCapacity(cap);
+        netrunSessions.setCapacity(cap);
+        chatCredCooldowns.setCapacity(cap);
+        alertSchedule.setCapacity(cap);
     }
 
     public boolean reloadConfig() {
@@ -104,7 +175,7 @@ public final class NeonEchoState {
     }
 
     public void saveConfig() {
-        saveConfig(config);
+        saveConfig(config.raw());
     }
 
     public void saveConfig(NeonEchoConfig toSave) {
@@ -120,44 +191,566 @@ public final class NeonEchoState {
     }
 
     public void loadData() {
+        NeonEchoConfig cfg = config.raw();
+        if (writer == null) {
+            int fsyncSeconds = cfg != null && cfg.snapshotFsyncSeconds != null ? cfg.snapshotFsyncSeconds : 30;
+            int generations = cfg != null && cfg.snapshotGenerations != null ? cfg.snapshotGenerations : 3;
+            this.writer = new NeonSnapshotWriter(logger, cfg != null ? cfg.snapshotFsync : null, fsyncSeconds * 1000L, generations);
+        }
+        this.store = new NeonEchoStore(logger, gson, dataDir.resolve("players"), cfg != null ? cfg.storageFormat : null, writer);
         NeonEchoData loaded = null;
-        if (Files.exists(dataPath)) {
+        boolean schemaChanged = false;
+        if (store.exists()) {
+            schemaChanged = !store.isCurrentSchema();
+            loaded = schemaChanged ? store.loadAll() : new NeonEchoData();
+        }
+        else if (Files.exists(dataPath)) {
             try (Reader reader = Files.newBufferedReader(dataPath, StandardCharsets.UTF_8)) {
                 loaded = gson.fromJson(reader, NeonEchoData.class);
             }
             catch (IOException ex) {
                 logger.at(Level.WARNING).log("Failed to read NeonEcho data, recreating defaults.");
             }
+            schemaChanged = true;
         }
-        if (loaded == null) {
+        boolean missing = loaded == null;
+        if (missing) {
             loaded = new NeonEchoData();
-            saveData(loaded);
+        }
+        loaded.normalize();
+        this.fullRewrite = missing || schemaChanged;
+        NeonEchoData index = fullRewrite ? loaded : store.loadIndex();
+        this.leaderboards = NeonLeaderboards.restore(store.loadLeaderboards(), getLeaderboardSeasonDays(),
+                dayClock.today());
+        NeonGlobalAlert alert = NeonGlobalAlert.restore(globalAlertSerial.incrementAndGet(), store.loadAlert());
+        if (alert != null && alert.event().bind(config) && !alert.isExpired(System.currentTimeMillis())) {
+            this.globalAlert = alert;
+            expiries.schedule(new Expiry(ExpiryKind.GLOBAL_END, null, alert.serial()), alert.event().expiresAt);
+        }
+        else {
+            this.globalAlert = null;
+        }
+        indexRunners(index);
+        NeonPersistentMap<UUID, NeonPlayerRecord> records = NeonPersistentMap.empty();
+        int skipped = 0;
+        for (String key : loaded.playerKeys()) {
+            UUID playerId = parsePlayerKey(key);
+            if (playerId == null) {
+                skipped++;
+                continue;
+            }
+            NeonPlayerRecord record = NeonPlayerRecord.fromData(loaded, key);
+            credSequence.accumulateAndGet(record.credCell().balance().sequence(), Math::max);
+            records = records.plus(playerId, record);
+        }
+        if (skipped > 0) {
+            logger.at(Level.WARNING).log("Dropped " + skipped + " NeonEcho records without a player UUID.");
+        }
+        evictAt.clear();
+        players.set(records);
+        dirtyPlayers.clear();
+        NeonEchoJournal opened = new NeonEchoJournal(logger, journalGson, journalDir, getJournalFlushMillis());
+        int replayed = replayJournal(opened);
+        long now = System.currentTimeMillis();
+        for (UUID playerId : players.get().keySet()) {
+            evictAt.put(playerId, now);
+        }
+        if (isJournalEnabled() && journal == null) {
+            try {
+                opened.start();
+                this.journal = opened;
+            }
+            catch (IOException ex) {
+                logger.at(Level.WARNING).log("Failed to open NeonEcho journal, using periodic saves only: " + ex.getMessage());
+            }
+        }
+        if (fullRewrite || replayed > 0) {
+            syncData().join();
+            if (journal == null) {
+                opened.deleteThrough(Long.MAX_VALUE);
+            }
+        }
+    }
+
+    /**
+     * Saves every dirty runner, then closes the journal and stops the snapshot and I/O threads. Called once when
+     * the plugin shuts down; the state is not used afterwards.
+     */
+    public void shutdown() {
+        NeonSnapshotWriter active = writer;
+        if (active != null) {
+            try {
+                syncData().join();
+            }
+            catch (CompletionException ex) {
+                logger.at(Level.WARNING).log("Failed to save NeonEcho data on shutdown: " + ex.getMessage());
+            }
+        }
+        NeonEchoJournal open = journal;
+        if (open != null) {
+            open.close();
+        }
+        if (active != null) {
+            active.close();
+        }
+        ioExecutor.shutdown();
+    }
+
+    /**
+     * Queues a flush on the snapshot thread; the returned future completes once the dirty state is on disk.
+     */
+    public CompletableFuture<Boolean> saveData() {
+        return writer.submit(() -> flushData(false));
+    }
+
+    /**
+     * Like {@link #saveData()}, but fsyncs every file whatever the policy, so the journal is always compacted.
+     */
+    private CompletableFuture<Boolean> syncData() {
+        return writer.submit(() -> flushData(true));
+    }
+
+    /**
+     * Writes the dirty state. The journal is only compacted after a flush the writer synced in full; under the
+     * interval policy the flushes in between keep their segments, and the next synced flush deletes them all.
+     */
+    private boolean flushData(boolean sync) {
+        boolean durable = writer.beginBatch(sync);
+        NeonEchoJournal active = journal;
+        boolean rewrite = fullRewrite;
+        NeonLeaderboards.Data boards = leaderboards.drainChanges(dayClock.today());
+        if (boards != null && !store.writeLeaderboards(boards)) {
+            leaderboards.markDirty();
+        }
+        if (!rewrite && dirtyPlayers.isEmpty()) {
+            writeAlert();
+            evictExpired();
+            return true;
+        }
+        // Writers swap the root, mark the player dirty and journal under the player's lock. Holding every lock
+        // while rolling and reading the root means each journaled change in the root has been appended, and the
+        // flush below makes those entries durable before a snapshot holding them is written. If the process dies
+        // before the segments are deleted, replay ends on the snapshot's values or newer ones. Cred is changed
+        // without the locks and is kept in order by its saved sequence instead.
+        long[] sealed = {-1L};
+        Set<UUID> changed = new HashSet<>();
+        NeonPersistentMap<UUID, NeonPlayerRecord> snapshot = withAllPlayerLocks(0, () -> {
+            if (active != null) {
+                sealed[0] = active.roll();
+            }
+            for (Iterator<UUID> it = dirtyPlayers.iterator(); it.hasNext(); ) {
+                changed.add(it.next());
+                it.remove();
+            }
+            return players.get();
+        });
+        if (active != null) {
+            active.flush();
+        }
+        // After the roll, so every alert use in the sealed segments is in the saved alert.
+        boolean alertSaved = writeAlert();
+        Map<NeonCredCell, Long> written = new HashMap<>();
+        boolean saved;
+        if (rewrite) {
+            saved = saveData(toData(snapshot, null, written));
+            if (saved) {
+                fullRewrite = false;
+                retireLegacyData();
+            }
+        }
+        else {
+            Set<String> keys = new HashSet<>();
+            for (UUID playerId : changed) {
+                if (snapshot.containsKey(playerId)) {
+                    keys.add(playerId.toString());
+                }
+            }
+            saved = store.writeDelta(NeonEchoData.Delta.ofPlayers(toData(snapshot, changed, written), keys));
+        }
+        if (saved) {
+            written.forEach(NeonCredCell::markSaved);
         }
         else {
-            loaded.normalize();
+            dirtyPlayers.addAll(changed);
         }
-        synchronized (dataLock) {
-            this.data = loaded;
+        if (saved && alertSaved && durable && active != null) {
+            active.deleteThrough(sealed[0]);
         }
+        if (saved) {
+            evictExpired();
+        }
+        return saved;
     }
 
-    public void saveData() {
-        NeonEchoData snapshot;
-        synchronized (dataLock) {
-            snapshot = data.copy();
+    /**
+     * Writes the global alert if it changed since the last write. Returns {@code false} only if that write failed.
+     */
+    private boolean writeAlert() {
+        if (!globalAlertDirty) {
+            return true;
+        }
+        globalAlertDirty = false;
+        NeonGlobalAlert alert = globalAlert;
+        if (!store.writeAlert(alert != null ? alert.toData() : null)) {
+            globalAlertDirty = true;
+            return false;
         }
-        saveData(snapshot);
+        return true;
     }
 
-    public void saveData(NeonEchoData toSave) {
+    public boolean saveData(NeonEchoData toSave) {
         if (toSave == null) {
+            return false;
+        }
+        return store.writeAll(toSave);
+    }
+
+    private static NeonEchoData toData(NeonPersistentMap<UUID, NeonPlayerRecord> records, Set<UUID> onlyPlayers,
+                                       Map<NeonCredCell, Long> written) {
+        NeonEchoData values = new NeonEchoData();
+        for (Map.Entry<UUID, NeonPlayerRecord> entry : records.entrySet()) {
+            if (onlyPlayers == null || onlyPlayers.contains(entry.getKey())) {
+                long sequence = entry.getValue().writeTo(values, entry.getKey().toString());
+                written.put(entry.getValue().credCell(), sequence);
+            }
+        }
+        return values;
+    }
+
+    /**
+     * Writes every runner, resident or not, to a pretty-printed JSON file under {@code exports/}. Runs on the
+     * snapshot thread, between flushes; the future holds the file, or {@code null} if the export failed.
+     */
+    public CompletableFuture<Path> exportData() {
+        return writer.submit(this::writeExport);
+    }
+
+    private Path writeExport() {
+        NeonPersistentMap<UUID, NeonPlayerRecord> resident = players.get();
+        NeonEchoData snapshot = fullRewrite ? new NeonEchoData() : store.loadAll();
+        for (Map.Entry<UUID, NeonPlayerRecord> entry : resident.entrySet()) {
+            entry.getValue().writeTo(snapshot, entry.getKey().toString());
+        }
+        String stamp = LocalDateTime.now().format(DateTimeFormatter.ofPattern("yyyyMMdd-HHmmss"));
+        Path target = exportDir.resolve("neonecho-" + stamp + ".json");
+        try {
+            Files.createDirectories(exportDir);
+            try (Writer writer = Files.newBufferedWriter(target, StandardCharsets.UTF_8)) {
+                gson.toJson(snapshot, writer);
+            }
+            return target;
+        }
+        catch (IOException ex) {
+            logger.at(Level.WARNING).log("Failed to export NeonEcho data: " + ex.getMessage());
+            return null;
+        }
+    }
+
+    /**
+     * Replaces all runner data with an export file from {@code exports/}. Pending journal records are dropped
+     * since they describe the data being replaced, and the leaderboards start over. Runs on the snapshot thread;
+     * the future holds whether the import was applied.
+     */
+    public CompletableFuture<Boolean> importData(String fileName) {
+        return writer.submit(() -> readImport(fileName));
+    }
+
+    private boolean readImport(String fileName) {
+        Path source = exportDir.resolve(fileName).normalize();
+        if (!source.startsWith(exportDir) || !Files.exists(source)) {
+            return false;
+        }
+        NeonEchoData imported;
+        try (Reader reader = Files.newBufferedReader(source, StandardCharsets.UTF_8)) {
+            imported = gson.fromJson(reader, NeonEchoData.class);
+        }
+        catch (IOException | JsonParseException ex) {
+            logger.at(Level.WARNING).log("Failed to read NeonEcho import " + fileName + ": " + ex.getMessage());
+            return false;
+        }
+        if (imported == null) {
+            return false;
+        }
+        imported.normalize();
+        return replaceData(imported);
+    }
+
+    /**
+     * Swaps in imported data. The snapshot is written first, without the player locks, because the journal is
+     * dropped below and the new data has to be on disk before that. Changes made to resident runners while it is
+     * written are replaced along with everything else. The new boards are built up front too; the locks are
+     * only held to swap the map and boards, seal the old cells and roll the journal, and page-ins that read the
+     * store before the swap start over.
+     */
+    private boolean replaceData(NeonEchoData imported) {
+        writer.beginBatch(true);
+        if (!saveData(imported)) {
+            return false;
+        }
+        NeonLeaderboards boards = new NeonLeaderboards(getLeaderboardSeasonDays(), dayClock.today());
+        boards.markDirty();
+        indexBoards(boards, imported);
+        NeonEchoJournal active = journal;
+        long[] sealed = {-1L};
+        withAllPlayerLocks(0, () -> {
+            dataEpoch++;
+            for (NeonPlayerRecord resident : players.getAndSet(NeonPersistentMap.empty()).values()) {
+                resident.credCell().seal();
+            }
+            dirtyPlayers.clear();
+            evictAt.clear();
+            perkEffects.clear();
+            fullRewrite = false;
+            leaderboards = boards;
+            runnerNames.clear();
+            runnerNames.putAll(imported.names);
+            if (active != null) {
+                sealed[0] = active.roll();
+            }
+            return null;
+        });
+        if (active != null) {
+            active.deleteThrough(sealed[0]);
+        }
+        NeonLeaderboards.Data changes = leaderboards.drainChanges(dayClock.today());
+        if (changes != null && !store.writeLeaderboards(changes)) {
+            leaderboards.markDirty();
+        }
+        retireLegacyData();
+        return true;
+    }
+
+    private <T> T withAllPlayerLocks(int stripe, Supplier<T> action) {
+        if (stripe == playerLocks.length) {
+            return action.get();
+        }
+        synchronized (playerLocks[stripe]) {
+            return withAllPlayerLocks(stripe + 1, action);
+        }
+    }
+
+    private void retireLegacyData() {
+        if (!Files.exists(dataPath)) {
             return;
         }
-        try (Writer writer = Files.newBufferedWriter(dataPath, StandardCharsets.UTF_8)) {
-            gson.toJson(toSave, writer);
+        try {
+            Files.move(dataPath, dataDir.resolve("data.json.migrated"), StandardCopyOption.REPLACE_EXISTING);
         }
         catch (IOException ex) {
-            logger.at(Level.WARNING).log("Failed to write NeonEcho data: " + ex.getMessage());
+            logger.at(Level.WARNING).log("Failed to retire legacy NeonEcho data.json: " + ex.getMessage());
+        }
+    }
+
+    public boolean isJournalEnabled() {
+        NeonEchoConfig cfg = config.raw();
+        return cfg != null && Boolean.TRUE.equals(cfg.journalEnabled);
+    }
+
+    public int getSaveIntervalSeconds() {
+        NeonEchoConfig cfg = config.raw();
+        if (journal == null || cfg == null || cfg.journalCompactSeconds == null) {
+            return 60;
+        }
+        return Math.max(10, cfg.journalCompactSeconds);
+    }
+
+    private int getLeaderboardSeasonDays() {
+        NeonEchoConfig cfg = config.raw();
+        return cfg != null && cfg.leaderboardSeasonDays != null ? cfg.leaderboardSeasonDays : 28;
+    }
+
+    private int getJournalFlushMillis() {
+        NeonEchoConfig cfg = config.raw();
+        return cfg != null && cfg.journalFlushMillis != null ? cfg.journalFlushMillis : 100;
+    }
+
+    private int replayJournal(NeonEchoJournal source) {
+        List<NeonJournalEntry> entries = new ArrayList<>();
+        source.replay(entry -> {
+            if (parsePlayerKey(entry.player) != null) {
+                entries.add(entry);
+            }
+        });
+        if (entries.isEmpty()) {
+            return 0;
+        }
+        for (NeonJournalEntry entry : entries) {
+            pageIn(UUID.fromString(entry.player));
+        }
+        for (NeonJournalEntry entry : entries) {
+            UUID playerId = UUID.fromString(entry.player);
+            if (entry.sequence != null) {
+                credSequence.accumulateAndGet(entry.sequence, Math::max);
+            }
+            synchronized (lockFor(playerId)) {
+                NeonPlayerRecord updated = entry.applyTo(record(playerId));
+                update(playerId, updated);
+                if (entry.cred != null) {
+                    indexCred(playerId.toString(), updated);
+                }
+                indexNetrun(playerId, updated);
+            }
+            NeonGlobalAlert alert = globalAlert;
+            if (NeonJournalEntry.OP_ALERT.equals(entry.op) && alert != null && entry.uses != null
+                    && entry.expiresAt != null && entry.expiresAt == alert.event().expiresAt
+                    && alert.restoreUses(playerId, entry.uses)) {
+                globalAlertDirty = true;
+            }
+        }
+        logger.atInfo().log("Replayed " + entries.size() + " NeonEcho journal records.");
+        return entries.size();
+    }
+
+    private static UUID parsePlayerKey(String key) {
+        if (key == null) {
+            return null;
+        }
+        try {
+            return UUID.fromString(key);
+        }
+        catch (IllegalArgumentException ex) {
+            return null;
+        }
+    }
+
+    /**
+     * Starts reading a player's bucket on the I/O thread so the connect handler never waits on disk.
+     */
+    public CompletableFuture<Void> loadPlayerAsync(UUID playerId) {
+        return CompletableFuture.runAsync(() -> pageIn(playerId), ioExecutor);
+    }
+
+    private void page(UUID playerId) {
+        if (!onlinePlayers.contains(playerId)) {
+            evictAt.put(playerId, System.currentTimeMillis() + getEvictDelayMillis());
+        }
+        pageIn(playerId);
+    }
+
+    private NeonPlayerRecord pageIn(UUID playerId) {
+        while (true) {
+            long epoch = dataEpoch;
+            NeonPlayerRecord resident = players.get().get(playerId);
+            if (resident != null) {
+                return resident;
+            }
+            String key = playerId.toString();
+            NeonEchoData stored = store.loadPlayer(key);
+            NeonPlayerRecord loaded = stored != null ? NeonPlayerRecord.fromData(stored, key) : NeonPlayerRecord.empty();
+            // Later changes must sort after the saved balance, or replay would skip them.
+            credSequence.accumulateAndGet(loaded.credCell().balance().sequence(), Math::max);
+            NeonPlayerRecord current = players.updateAndGet(root -> dataEpoch != epoch || root.containsKey(playerId)
+                    ? root : root.plus(playerId, loaded)).get(playerId);
+            if (current != null) {
+                return current;
+            }
+        }
+    }
+
+    /**
+     * Drops clean records whose eviction time has passed. Runs on the snapshot thread after a successful flush,
+     * so a clean record is already on disk. The deadline is re-read under the player's lock because
+     * {@link #page} pushes it out before touching the record.
+     */
+    private void evictExpired() {
+        if (fullRewrite || evictAt.isEmpty()) {
+            return;
+        }
+        long now = System.currentTimeMillis();
+        for (UUID playerId : evictAt.keySet()) {
+            synchronized (lockFor(playerId)) {
+                Long due = evictAt.get(playerId);
+                if (due == null || due > now || dirtyPlayers.contains(playerId)) {
+                    continue;
+                }
+                NeonPlayerRecord resident = players.get().get(playerId);
+                if (resident != null && !resident.credCell().trySeal()) {
+                    continue;
+                }
+                players.updateAndGet(current -> current.minus(playerId));
+                evictAt.remove(playerId, due);
+                perkEffects.remove(playerId);
+            }
+        }
+    }
+
+    private long getEvictDelayMillis() {
+        NeonEchoConfig cfg = config.raw();
+        int seconds = cfg != null && cfg.playerEvictSeconds != null ? cfg.playerEvictSeconds : 300;
+        return Math.max(1, seconds) * 1000L;
+    }
+
+    /**
+     * The player's resident record, paging it back in if it was evicted since the caller's {@link #page}.
+     */
+    private NeonPlayerRecord record(UUID playerId) {
+        NeonPlayerRecord record = players.get().get(playerId);
+        return record != null ? record : pageIn(playerId);
+    }
+
+    /**
+     * Lock guarding read-modify-write of one player's record. Players hash onto a fixed set of stripes, so
+     * unrelated players rarely contend; player operations never hold two stripes.
+     */
+    private Object lockFor(UUID playerId) {
+        return playerLocks[stripeOf(playerId)];
+    }
+
+    private static int stripeOf(UUID playerId) {
+        int hash = playerId.hashCode();
+        return (hash ^ (hash >>> 16)) & (LOCK_STRIPES - 1);
+    }
+
+    /**
+     * Swaps in a player's new record and queues it for the next flush. Call while holding {@link #lockFor}; the
+     * root itself is published with a compare-and-set so other stripes can update it concurrently.
+     */
+    private void update(UUID playerId, NeonPlayerRecord record) {
+        players.updateAndGet(current -> current.plus(playerId, record));
+        dirtyPlayers.add(playerId);
+    }
+
+    private void indexRunners(NeonEchoData index) {
+        indexBoards(leaderboards, index);
+        runnerNames.clear();
+        runnerNames.putAll(index.names);
+    }
+
+    private static void indexBoards(NeonLeaderboards boards, NeonEchoData index) {
+        boards.clearRecordBoards();
+        for (Map.Entry<String, Integer> entry : index.cred.entrySet()) {
+            boards.updateAllTime(NeonLeaderboards.Metric.CRED, entry.getKey(), entry.getValue());
+        }
+        for (Map.Entry<String, Integer> entry : index.netrunWins.entrySet()) {
+            boards.updateAllTime(NeonLeaderboards.Metric.WINS, entry.getKey(), entry.getValue());
+        }
+        for (Map.Entry<String, Integer> entry : index.netrunBestStreak.entrySet()) {
+            boards.updateAllTime(NeonLeaderboards.Metric.STREAK, entry.getKey(), entry.getValue());
+        }
+    }
+
+    private void indexCred(String key, NeonPlayerRecord record) {
+        if (record.name() != null) {
+            runnerNames.putIfAbsent(key, record.name());
+        }
+        leaderboards.updateAllTime(NeonLeaderboards.Metric.CRED, key, record::cred);
+    }
+
+    private void indexNetrun(UUID playerId, NeonPlayerRecord record) {
+        String key = playerId.toString();
+        leaderboards.updateAllTime(NeonLeaderboards.Metric.WINS, key, record.netrunWins());
+        leaderboards.updateAllTime(NeonLeaderboards.Metric.STREAK, key, record.netrunBestStreak());
+    }
+
+    private String displayName(String key) {
+        String name = runnerNames.get(key);
+        return name != null ? name : "Runner-" + key.substring(0, 6);
+    }
+
+    private void journal(NeonJournalEntry entry) {
+        NeonEchoJournal active = journal;
+        if (active != null) {
+            active.append(entry);
         }
     }
 
@@ -170,16 +763,15 @@ public final class NeonEchoState {
     }
 
     public NeonEchoConfig getConfig() {
-        return config;
+        return config.raw();
     }
 
     public NeonEchoTheme getTheme() {
-        NeonEchoConfig cfg = config;
-        return NeonEchoThemes.get(cfg != null ? cfg.theme : null);
+        return config.theme();
     }
 
     public String formatMessage(String message) {
-        String prefix = getPrefix();
+        String prefix = config.prefix();
         if (prefix.isBlank()) {
             return message;
         }
@@ -187,41 +779,31 @@ public final class NeonEchoState {
     }
 
     public String getPrefix() {
-        NeonEchoConfig cfg = config;
-        String prefix = cfg != null ? cfg.prefix : null;
-        if (prefix == null || prefix.isBlank()) {
-            prefix = getTheme().getPrefix();
-        }
-        return prefix == null ? "" : prefix;
+        return config.prefix();
     }
 
     public String getJoinMessage() {
-        NeonEchoConfig cfg = config;
-        String joinMessage = cfg != null ? cfg.joinMessage : null;
-        if (joinMessage == null || joinMessage.isBlank()) {
-            joinMessage = getTheme().getJoinMessage();
-        }
-        return joinMessage;
+        return config.joinMessage();
     }
 
-    public List<String> getNetrunStartLines() {
-        return resolveLines(config != null ? config.netrunStartLines : null, getTheme().getNetrunStartLines());
+    public List<NeonMessageTemplate> getNetrunStartLines() {
+        return config.netrunStartLines();
     }
 
-    public List<String> getNetrunSuccessLines() {
-        return resolveLines(config != null ? config.netrunSuccessLines : null, getTheme().getNetrunSuccessLines());
+    public List<NeonMessageTemplate> getNetrunSuccessLines() {
+        return config.netrunSuccessLines();
     }
 
-    public List<String> getNetrunFailLines() {
-        return resolveLines(config != null ? config.netrunFailLines : null, getTheme().getNetrunFailLines());
+    public List<NeonMessageTemplate> getNetrunFailLines() {
+        return config.netrunFailLines();
     }
 
-    public List<String> getNetrunCooldownLines() {
-        return resolveLines(config != null ? config.netrunCooldownLines : null, getTheme().getNetrunCooldownLines());
+    public List<NeonMessageTemplate> getNetrunCooldownLines() {
+        return config.netrunCooldownLines();
     }
 
-    public List<String> getNetrunHintLines() {
-        return resolveLines(config != null ? config.netrunHintLines : null, getTheme().getNetrunHintLines());
+    public List<NeonMessageTemplate> getNetrunHintLines() {
+        return config.netrunHintLines();
     }
 
     public Duration getUptime() {
@@ -249,11 +831,14 @@ public final class NeonEchoState {
         if (online) {
             onlinePlayers.add(playerId);
             onlineRefs.put(playerId, ref);
+            evictAt.remove(playerId);
+            scheduleAlert(playerId, System.currentTimeMillis());
         }
         else {
             onlinePlayers.remove(playerId);
             onlineRefs.remove(playerId);
-            eventRolls.remove(playerId);
+            alertSchedule.remove(playerId);
+            evictAt.put(playerId, System.currentTimeMillis() + getEvictDelayMillis());
         }
     }
 
@@ -263,160 +848,198 @@ public final class NeonEchoState {
         }
         if (online) {
             onlinePlayers.add(playerId);
+            evictAt.remove(playerId);
+            scheduleAlert(playerId, System.currentTimeMillis());
         }
         else {
             onlinePlayers.remove(playerId);
             onlineRefs.remove(playerId);
-            eventRolls.remove(playerId);
+            alertSchedule.remove(playerId);
+            evictAt.put(playerId, System.currentTimeMillis() + getEvictDelayMillis());
         }
     }
-
     public void recordPlayerName(UUID playerId, String username) {
         if (username == null || username.isBlank()) {
             return;
         }
-        synchronized (dataLock) {
-            data.names.put(playerId.toString(), username);
+        page(playerId);
+        synchronized (lockFor(playerId)) {
+            NeonPlayerRecord record = record(playerId);
+            if (!username.equals(record.name())) {
+                update(playerId, record.withName(username));
+                runnerNames.put(playerId.toString(), username);
+            }
         }
     }
 
     public int getCred(UUID playerId) {
-        synchronized (dataLock) {
-            return data.cred.getOrDefault(playerId.toString(), 0);
-        }
+        page(playerId);
+        return record(playerId).cred();
     }
 
     public int addCred(UUID playerId, int amount) {
         if (amount == 0) {
             return getCred(playerId);
         }
-        synchronized (dataLock) {
-            String key = playerId.toString();
-            int current = data.cred.getOrDefault(key, 0);
-            int updated = Math.max(0, current + amount);
-            data.cred.put(key, updated);
+        NeonCredCell.Balance updated = applyCred(playerId, current -> clampCred((long) current + amount), amount > 0);
+        journal(NeonJournalEntry.cred(playerId.toString(), updated));
+        return updated.cred();
+    }
+
+    public void setCred(UUID playerId, int amount) {
+        NeonCredCell.Balance updated = applyCred(playerId, current -> Math.max(0, amount), false);
+        journal(NeonJournalEntry.cred(playerId.toString(), updated));
+    }
+
+    /**
+     * Changes a player's cred with a compare-and-set on their cell; no lock is taken. Returns the new balance, or
+     * {@code null} if {@code change} rejected the current one. The caller journals the result. An {@code earned}
+     * increase also counts towards the windowed cred boards.
+     */
+    private NeonCredCell.Balance applyCred(UUID playerId, IntUnaryOperator change, boolean earned) {
+        page(playerId);
+        int[] before = new int[1];
+        IntUnaryOperator tracked = current -> {
+            before[0] = current;
+            return change.applyAsInt(current);
+        };
+        while (true) {
+            NeonCredCell.Balance updated = applyCredTo(playerId, playerId.toString(), record(playerId), tracked, before,
+                    earned);
+            if (updated == NeonCredCell.SEALED) {
+                // Evicted under us; the record is being dropped and will page back in from disk.
+                Thread.onSpinWait();
+                continue;
+            }
             return updated;
         }
     }
 
-    public void setCred(UUID playerId, int amount) {
-        synchronized (dataLock) {
-            data.cred.put(playerId.toString(), Math.max(0, amount));
+    /**
+     * One attempt at {@link #applyCred} against a record the caller has already read. {@code tracked} must store
+     * the balance it was applied to in {@code before[0]}.
+     */
+    private NeonCredCell.Balance applyCredTo(UUID playerId, String key, NeonPlayerRecord record,
+                                             IntUnaryOperator tracked, int[] before, boolean earned) {
+        NeonCredCell.Balance updated = record.credCell().update(tracked, credSequence::incrementAndGet);
+        if (updated != null && updated != NeonCredCell.SEALED) {
+            dirtyPlayers.add(playerId);
+            indexCred(key, record);
+            if (earned) {
+                leaderboards.record(NeonLeaderboards.Metric.CRED, key, updated.cred() - before[0]);
+            }
         }
+        return updated;
+    }
+
+    private static int clampCred(long cred) {
+        return (int) Math.max(0L, Math.min(Integer.MAX_VALUE, cred));
     }
 
     public NetrunStats getNetrunStats(UUID playerId) {
-        synchronized (dataLock) {
-            String key = playerId.toString();
-            return new NetrunStats(
-                    data.netrunWins.getOrDefault(key, 0),
-                    data.netrunFails.getOrDefault(key, 0),
-                    data.netrunStreak.getOrDefault(key, 0),
-                    data.netrunBestStreak.getOrDefault(key, 0)
-            );
-        }
+        page(playerId);
+        NeonPlayerRecord record = record(playerId);
+        return new NetrunStats(record.netrunWins(), record.netrunFails(), record.netrunStreak(), record.netrunBestStreak());
     }
 
     public int recordNetrunWin(UUID playerId) {
-        if (isDailyEnabled()) {
-            ensureDailyContract(playerId);
-        }
-        synchronized (dataLock) {
+        boolean daily = isDailyEnabled();
+        int today = dayClock.today();
+        page(playerId);
+        NeonPlayerRecord updated;
+        List<String> completed = null;
+        synchronized (lockFor(playerId)) {
+            NeonPlayerRecord before = record(playerId);
+            if (daily) {
+                before = withTodayContract(before, today);
+            }
+            updated = before.withNetrunWin();
+            update(playerId, updated);
+            indexNetrun(playerId, updated);
             String key = playerId.toString();
-            data.netrunWins.put(key, data.netrunWins.getOrDefault(key, 0) + 1);
-            int streak = data.netrunStreak.getOrDefault(key, 0) + 1;
-            data.netrunStreak.put(key, streak);
-            int best = Math.max(data.netrunBestStreak.getOrDefault(key, 0), streak);
-            data.netrunBestStreak.put(key, best);
-            data.dailyNetrunWins.put(key, data.dailyNetrunWins.getOrDefault(key, 0) + 1);
-            return streak;
+            leaderboards.record(NeonLeaderboards.Metric.WINS, key, 1);
+            leaderboards.record(NeonLeaderboards.Metric.STREAK, key, updated.netrunStreak());
+            journal(NeonJournalEntry.win(playerId.toString(), updated.netrunWins(), updated.netrunStreak(),
+                    updated.netrunBestStreak(), updated.dailyNetrunWins(), updated.dailyDay()));
+            if (daily) {
+                completed = dailyCompletions(playerId, before, updated, NeonObjectiveType.Signal.NETRUN_WIN,
+                        NeonObjectiveType.Signal.NETRUN_STREAK);
+            }
         }
+        sendDailyCompletions(playerId, completed);
+        return updated.netrunStreak();
     }
 
     public void recordNetrunFail(UUID playerId) {
-        synchronized (dataLock) {
-            String key = playerId.toString();
-            data.netrunFails.put(key, data.netrunFails.getOrDefault(key, 0) + 1);
-            data.netrunStreak.put(key, 0);
+        page(playerId);
+        synchronized (lockFor(playerId)) {
+            NeonPlayerRecord updated = record(playerId).withNetrunFail();
+            update(playerId, updated);
+            journal(NeonJournalEntry.fail(playerId.toString(), updated.netrunFails()));
         }
     }
 
     public List<CredEntry> getTopCred(int limit) {
         List<CredEntry> results = new ArrayList<>();
-        synchronized (dataLock) {
-            for (Map.Entry<String, Integer> entry : data.cred.entrySet()) {
-                String name = data.names.getOrDefault(entry.getKey(), "Runner-" + entry.getKey().substring(0, 6));
-                results.add(new CredEntry(entry.getKey(), name, entry.getValue()));
-            }
+        for (LeaderboardEntry entry : getLeaderboard(NeonLeaderboards.Metric.CRED, NeonLeaderboards.Window.ALL, limit)) {
+            results.add(new CredEntry(entry.playerKey(), entry.displayName(), (int) entry.score()));
         }
-        results.sort(Comparator.comparingInt(CredEntry::cred).reversed());
-        if (limit > 0 && results.size() > limit) {
-            return new ArrayList<>(results.subList(0, limit));
+        return results;
+    }
+
+    public List<LeaderboardEntry> getLeaderboard(NeonLeaderboards.Metric metric, NeonLeaderboards.Window window, int limit) {
+        List<NeonRankIndex.Ranked> top = leaderboards.top(metric, window, limit > 0 ? limit : Integer.MAX_VALUE,
+                dayClock.today());
+        List<LeaderboardEntry> results = new ArrayList<>(top.size());
+        for (NeonRankIndex.Ranked ranked : top) {
+            results.add(new LeaderboardEntry(ranked.key(), displayName(ranked.key()), ranked.score(), ranked.rank()));
         }
         return results;
     }
 
+    /**
+     * The runner's place on the cred board, or rank 0 if they have no cred.
+     */
+    public CredRank getCredRank(UUID playerId) {
+        NeonLeaderboards.Standing standing = leaderboards.standing(NeonLeaderboards.Metric.CRED,
+                NeonLeaderboards.Window.ALL, playerId.toString(), dayClock.today());
+        return new CredRank(standing.rank(), standing.total());
+    }
+
     public String getTitle(UUID playerId) {
         int cred = getCred(playerId);
         return getTitleForCred(cred);
     }
 
     public String getTitleForCred(int cred) {
-        NeonEchoConfig cfg = config;
-        if (cfg == null || cfg.titles == null || cfg.titles.isEmpty()) {
-            return "Runner";
-        }
-        String title = "Runner";
-        for (NeonEchoConfig.TitleRank rank : cfg.titles) {
-            if (rank == null || rank.title == null || rank.minCred == null) {
-                continue;
-            }
-            if (cred >= rank.minCred) {
-                title = rank.title;
-            }
-        }
-        return title;
+        return config.title(cred);
     }
 
     public boolean isPerksEnabled() {
-        NeonEchoConfig cfg = config;
+        NeonEchoConfig cfg = config.raw();
         return cfg != null && Boolean.TRUE.equals(cfg.perksEnabled);
     }
 
     public int getPerkSlots() {
-        NeonEchoConfig cfg = config;
+        NeonEchoConfig cfg = config.raw();
         return cfg != null && cfg.perkSlots != null ? cfg.perkSlots : 0;
     }
 
     public List<NeonEchoConfig.PerkConfig> getPerkConfigs() {
-        NeonEchoConfig cfg = config;
-        if (cfg == null || cfg.perks == null) {
-            return List.of();
-        }
-        return cfg.perks;
+        return config.perks();
     }
 
     public NeonEchoConfig.PerkConfig getPerkConfig(String perkId) {
-        if (perkId == null) {
-            return null;
-        }
-        String target = perkId.trim().toLowerCase(Locale.ROOT);
-        for (NeonEchoConfig.PerkConfig perk : getPerkConfigs()) {
-            if (perk != null && perk.id != null && perk.id.trim().equalsIgnoreCase(target)) {
-                return perk;
-            }
-        }
-        return null;
+        return config.perk(perkId);
     }
 
     public int getPerkRank(UUID playerId, String perkId) {
         if (playerId == null || perkId == null) {
             return 0;
         }
-        synchronized (dataLock) {
-            NeonPerkLoadout loadout = ensurePerkLoadout(playerId);
-            return loadout.owned.getOrDefault(perkId.toLowerCase(Locale.ROOT), 0);
-        }
+        page(playerId);
+        NeonPerkLoadout loadout = perkLoadout(playerId);
+        return loadout.owned.getOrDefault(perkId.toLowerCase(Locale.ROOT), 0);
     }
 
     public List<String> getActivePerks(UUID playerId) {
@@ -424,46 +1047,56 @@ public final class NeonEchoState {
             return List.of();
         }
         int slots = Math.max(0, getPerkSlots());
-        synchronized (dataLock) {
-            NeonPerkLoadout loadout = ensurePerkLoadout(playerId);
-            List<String> active = new ArrayList<>(loadout.active);
-            if (slots > 0 && active.size() > slots) {
-                active = new ArrayList<>(active.subList(0, slots));
-                loadout.active = new ArrayList<>(active);
+        page(playerId);
+        List<String> active = new ArrayList<>(perkLoadout(playerId).active);
+        if (slots > 0 && active.size() > slots) {
+            synchronized (lockFor(playerId)) {
+                NeonPerkLoadout loadout = perkLoadout(playerId);
+                active = new ArrayList<>(loadout.active);
+                if (active.size() > slots) {
+                    active = new ArrayList<>(active.subList(0, slots));
+                    NeonPerkLoadout trimmed = loadout.copy();
+                    trimmed.active = new ArrayList<>(active);
+                    update(playerId, record(playerId).withPerkLoadout(trimmed));
+                    journal(NeonJournalEntry.loadout(playerId.toString(), trimmed.active));
+                }
             }
-            return active;
         }
+        return active;
     }
 
+    /**
+     * The combined effect of a runner's active perks. Results are cached against the loadout and config
+     * snapshot they were computed from; both are replaced rather than changed, so an identity check is enough
+     * to tell the cache is current.
+     */
     public PerkEffects getPerkEffects(UUID playerId) {
-        if (!isPerksEnabled()) {
+        NeonCompiledConfig compiled = config;
+        if (!Boolean.TRUE.equals(compiled.raw().perksEnabled)) {
             return PerkEffects.defaults();
         }
-        List<String> active = getActivePerks(playerId);
-        double rewardMultiplier = 1.0;
-        double cooldownMultiplier = 1.0;
-        double timeoutMultiplier = 1.0;
-        int attemptBonus = 0;
-        int failPenaltyReduction = 0;
-        synchronized (dataLock) {
-            NeonPerkLoadout loadout = ensurePerkLoadout(playerId);
-            for (String perkId : active) {
-                NeonEchoConfig.PerkConfig perk = getPerkConfig(perkId);
-                if (perk == null) {
-                    continue;
-                }
-                int rank = loadout.owned.getOrDefault(perk.id.toLowerCase(Locale.ROOT), 0);
-                if (rank <= 0) {
-                    continue;
-                }
-                rewardMultiplier = applyMultiplier(rewardMultiplier, perk.rewardMultiplier, rank);
-                cooldownMultiplier = applyMultiplier(cooldownMultiplier, perk.cooldownMultiplier, rank);
-                timeoutMultiplier = applyMultiplier(timeoutMultiplier, perk.timeoutMultiplier, rank);
-                attemptBonus += (perk.attemptBonus != null ? perk.attemptBonus : 0) * rank;
-                failPenaltyReduction += (perk.failPenaltyReduction != null ? perk.failPenaltyReduction : 0) * rank;
+        page(playerId);
+        NeonPerkLoadout current = record(playerId).perkLoadout();
+        CachedPerkEffects cached = perkEffects.get(playerId);
+        if (cached != null && cached.loadout() == current && cached.config() == compiled) {
+            return cached.effects();
+        }
+        NeonPerkLoadout loadout = current != null ? current : new NeonPerkLoadout();
+        int slots = Math.max(0, compiled.raw().perkSlots != null ? compiled.raw().perkSlots : 0);
+        List<String> active = slots > 0 && loadout.active.size() > slots ? loadout.active.subList(0, slots) : loadout.active;
+        PerkEffects effects = PerkEffects.defaults();
+        for (String perkId : active) {
+            NeonCompiledConfig.PerkScaling scaling = compiled.perkScaling(perkId);
+            if (scaling == null) {
+                continue;
+            }
+            int rank = loadout.owned.getOrDefault(scaling.ownedKey(), 0);
+            if (rank > 0) {
+                effects = scaling.applyTo(effects, rank);
             }
         }
-        return new PerkEffects(rewardMultiplier, cooldownMultiplier, timeoutMultiplier, attemptBonus, failPenaltyReduction);
+        perkEffects.put(playerId, new CachedPerkEffects(current, compiled, effects));
+        return effects;
     }
 
     public PerkPurchaseResult purchasePerk(UUID playerId, String perkId) {
@@ -477,23 +1110,27 @@ public final class NeonEchoState {
         String normalized = perk.id.toLowerCase(Locale.ROOT);
         int maxRank = perk.maxRank != null ? perk.maxRank : 1;
         int baseCost = perk.cost != null ? perk.cost : 0;
-        synchronized (dataLock) {
-            NeonPerkLoadout loadout = ensurePerkLoadout(playerId);
+        page(playerId);
+        synchronized (lockFor(playerId)) {
+            NeonPerkLoadout loadout = perkLoadout(playerId);
             int currentRank = loadout.owned.getOrDefault(normalized, 0);
             if (currentRank >= maxRank) {
                 return PerkPurchaseResult.maxed(currentRank, baseCost);
             }
             int cost = Math.max(0, baseCost * (currentRank + 1));
-            int currentCred = data.cred.getOrDefault(playerId.toString(), 0);
-            if (currentCred < cost) {
+            NeonCredCell.Balance spent = applyCred(playerId, current -> current >= cost ? current - cost : -1, false);
+            if (spent == null) {
                 return PerkPurchaseResult.insufficient(currentRank, cost);
             }
-            data.cred.put(playerId.toString(), currentCred - cost);
             int newRank = currentRank + 1;
+            loadout = loadout.copy();
             loadout.owned.put(normalized, newRank);
             if (!loadout.active.contains(normalized) && loadout.active.size() < Math.max(0, getPerkSlots())) {
                 loadout.active.add(normalized);
             }
+            update(playerId, record(playerId).withPerkLoadout(loadout));
+            perkEffects.remove(playerId);
+            journal(NeonJournalEntry.perk(playerId.toString(), normalized, newRank, spent, loadout.active));
             return PerkPurchaseResult.purchased(newRank, cost);
         }
     }
@@ -507,8 +1144,9 @@ public final class NeonEchoState {
             return PerkEquipResult.notFound();
         }
         String normalized = perk.id.toLowerCase(Locale.ROOT);
-        synchronized (dataLock) {
-            NeonPerkLoadout loadout = ensurePerkLoadout(playerId);
+        page(playerId);
+        synchronized (lockFor(playerId)) {
+            NeonPerkLoadout loadout = perkLoadout(playerId);
             int rank = loadout.owned.getOrDefault(normalized, 0);
             if (rank <= 0) {
                 return PerkEquipResult.notOwned();
@@ -520,7 +1158,11 @@ public final class NeonEchoState {
             if (slots > 0 && loadout.active.size() >= slots) {
                 return PerkEquipResult.noSlots(slots);
             }
+            loadout = loadout.copy();
             loadout.active.add(normalized);
+            update(playerId, record(playerId).withPerkLoadout(loadout));
+            perkEffects.remove(playerId);
+            journal(NeonJournalEntry.loadout(playerId.toString(), loadout.active));
             return PerkEquipResult.equipped(slots);
         }
     }
@@ -534,44 +1176,31 @@ public final class NeonEchoState {
             return PerkEquipResult.notFound();
         }
         String normalized = perk.id.toLowerCase(Locale.ROOT);
-        synchronized (dataLock) {
-            NeonPerkLoadout loadout = ensurePerkLoadout(playerId);
+        page(playerId);
+        synchronized (lockFor(playerId)) {
+            NeonPerkLoadout loadout = perkLoadout(playerId);
             if (!loadout.active.contains(normalized)) {
                 return PerkEquipResult.notEquipped();
             }
+            loadout = loadout.copy();
             loadout.active.remove(normalized);
+            update(playerId, record(playerId).withPerkLoadout(loadout));
+            perkEffects.remove(playerId);
+            journal(NeonJournalEntry.loadout(playerId.toString(), loadout.active));
             return PerkEquipResult.unequipped(getPerkSlots());
         }
     }
 
-    private NeonPerkLoadout ensurePerkLoadout(UUID playerId) {
-        String key = playerId.toString();
-        NeonPerkLoadout loadout = data.perkLoadouts.get(key);
-        if (loadout == null) {
-            loadout = new NeonPerkLoadout();
-            loadout.normalize();
-            data.perkLoadouts.put(key, loadout);
-        }
-        else {
-            loadout.normalize();
-        }
-        return loadout;
+    private NeonPerkLoadout perkLoadout(UUID playerId) {
+        NeonPerkLoadout loadout = record(playerId).perkLoadout();
+        return loadout != null ? loadout : new NeonPerkLoadout();
     }
 
-    private double applyMultiplier(double current, Double perkMultiplier, int rank) {
-        if (perkMultiplier == null) {
-            return current;
-        }
-        double multiplier = perkMultiplier;
-        double result = current;
-        for (int i = 0; i < rank; i++) {
-            result *= multiplier;
-        }
-        return result;
-    }
-
-    public boolean tryAwardChatCred(UUID playerId, String content) {
-        NeonEchoConfig cfg = config;
+    /**
+     * Checks a chat message against the length rule and cred cooldown, starting a new cooldown if it earns cred.
+     */
+    public boolean claimChatCred(UUID playerId, String content, long now) {
+        NeonEchoConfig cfg = config.raw();
         if (cfg == null || cfg.chatCred == null || cfg.chatCred <= 0) {
             return false;
         }
@@ -580,110 +1209,336 @@ public final class NeonEchoState {
             return false;
         }
         int cooldownSeconds = cfg.chatCredCooldownSeconds != null ? cfg.chatCredCooldownSeconds : 0;
-        long now = System.currentTimeMillis();
         long cooldownMillis = Math.max(0L, cooldownSeconds) * 1000L;
-        Long lastAward = chatCredCooldowns.get(playerId);
-        if (lastAward != null && now - lastAward < cooldownMillis) {
-            return false;
+        if (cooldownMillis == 0L) {
+            return true;
         }
-        chatCredCooldowns.put(playerId, now);
-        addCred(playerId, cfg.chatCred);
-        return true;
-    }
-
-    public void recordChat(UUID playerId) {
-        if (!isDailyEnabled()) {
-            return;
+        return chatCredCooldowns.putIfExpired(playerId, now, now, now + cooldownMillis);
+    }
+
+    /**
+     * Applies a batch of chat from one player in a single pass: name, daily chat counter and the cred earned by
+     * {@code credAwards} messages.
+     */
+    public void ingestChat(UUID playerId, String username, int messages, int credAwards, int today) {
+        boolean daily = messages > 0 && isDailyEnabled();
+        page(playerId);
+        List<String> completed = null;
+        synchronized (lockFor(playerId)) {
+            NeonPlayerRecord record = record(playerId);
+            NeonPlayerRecord updated = record;
+            if (username != null && !username.isBlank() && !username.equals(record.name())) {
+                updated = updated.withName(username);
+                runnerNames.put(playerId.toString(), username);
+            }
+            if (daily) {
+                NeonPlayerRecord before = withTodayContract(updated, today);
+                updated = before.withDaily(before.dailyChatCount() + messages, before.dailyNetrunWins(),
+                        before.dailyOnlineSeconds());
+                completed = dailyCompletions(playerId, before, updated, NeonObjectiveType.Signal.CHAT);
+            }
+            if (updated != record) {
+                update(playerId, updated);
+            }
         }
-        ensureDailyContract(playerId);
-        synchronized (dataLock) {
-            String key = playerId.toString();
-            data.dailyChatCount.put(key, data.dailyChatCount.getOrDefault(key, 0) + 1);
+        sendDailyCompletions(playerId, completed);
+        NeonEchoConfig cfg = config.raw();
+        int chatCred = cfg != null && cfg.chatCred != null ? cfg.chatCred : 0;
+        if (credAwards > 0 && chatCred > 0) {
+            addCred(playerId, clampCred((long) credAwards * chatCred));
         }
     }
 
+    /**
+     * Today as an epoch day in the configured daily time zone.
+     */
+    public int getToday() {
+        return dayClock.today();
+    }
+
+    public int getChatBatchMillis() {
+        NeonEchoConfig cfg = config.raw();
+        return Math.max(10, cfg != null && cfg.chatBatchMillis != null ? cfg.chatBatchMillis : 50);
+    }
+
+    /**
+     * Grants online cred, when it is due, and adds {@code seconds} of online time to every online runner's daily
+     * counters in one pass. Runners are grouped by lock stripe, so each stripe is locked once and its records are
+     * published together with a single swap of the root.
+     */
     public void tickOnline(int seconds) {
         if (seconds <= 0) {
             return;
         }
-        NeonEchoConfig cfg = config;
+        NeonEchoConfig cfg = config.raw();
+        int grant = 0;
         if (cfg != null && cfg.onlineCred != null && cfg.onlineCred > 0) {
             int intervalSeconds = cfg.onlineCredIntervalSeconds != null ? cfg.onlineCredIntervalSeconds : 0;
             if (intervalSeconds > 0) {
                 long now = System.currentTimeMillis();
                 long last = lastOnlineCredAt.get();
                 if (now - last >= intervalSeconds * 1000L && lastOnlineCredAt.compareAndSet(last, now)) {
-                    for (UUID playerId : onlinePlayers) {
-                        addCred(playerId, cfg.onlineCred);
+                    grant = cfg.onlineCred;
+                }
+            }
+        }
+        boolean daily = isDailyEnabled();
+        if (grant <= 0 && !daily) {
+            return;
+        }
+        int today = dayClock.today();
+        List<List<UUID>> byStripe = groupByStripe(onlinePlayers);
+        List<NeonJournalEntry> entries = grant > 0 ? new ArrayList<>(onlinePlayers.size()) : null;
+        int amount = grant;
+        int[] before = new int[1];
+        IntUnaryOperator tracked = current -> {
+            before[0] = current;
+            return clampCred((long) current + amount);
+        };
+        for (int stripe = 0; stripe < byStripe.size(); stripe++) {
+            List<UUID> ids = byStripe.get(stripe);
+            if (ids == null) {
+                continue;
+            }
+            Map<UUID, List<String>> completed = null;
+            synchronized (playerLocks[stripe]) {
+                Map<UUID, NeonPlayerRecord> updated = daily ? new HashMap<>(ids.size() * 2) : null;
+                for (UUID playerId : ids) {
+                    NeonPlayerRecord record = record(playerId);
+                    if (amount > 0) {
+                        String key = playerId.toString();
+                        NeonCredCell.Balance balance = applyCredTo(playerId, key, record, tracked, before, true);
+                        if (balance == NeonCredCell.SEALED) {
+                            balance = applyCred(playerId, tracked, true);
+                        }
+                        entries.add(NeonJournalEntry.cred(key, balance));
                     }
+                    if (daily) {
+                        NeonPlayerRecord current = withTodayContract(record, today);
+                        NeonPlayerRecord next = current.withDaily(current.dailyChatCount(), current.dailyNetrunWins(),
+                                current.dailyOnlineSeconds() + seconds);
+                        updated.put(playerId, next);
+                        List<String> lines = dailyCompletions(playerId, current, next,
+                                NeonObjectiveType.Signal.ONLINE_SECONDS);
+                        if (lines != null) {
+                            if (completed == null) {
+                                completed = new HashMap<>();
+                            }
+                            completed.put(playerId, lines);
+                        }
+                    }
+                }
+                if (daily) {
+                    players.updateAndGet(current -> current.plusAll(updated));
+                    dirtyPlayers.addAll(ids);
                 }
             }
+            if (completed != null) {
+                completed.forEach(this::sendDailyCompletions);
+            }
+        }
+        NeonEchoJournal active = journal;
+        if (active != null && entries != null) {
+            active.appendAll(entries);
         }
+    }
+
+    /**
+     * Once the day turns, moves resident runners onto the new day's contract a chunk per call, so midnight is
+     * spread over the following ticks instead of landing on whichever action touches each runner first. Runners
+     * not reached yet, or paged in later, still renew on first touch. Returns how many records were renewed.
+     * Called from a single scheduler thread.
+     */
+    public int tickDailyRollover() {
         if (!isDailyEnabled()) {
-            return;
+            return 0;
         }
-        for (UUID playerId : onlinePlayers) {
-            ensureDailyContract(playerId);
-            synchronized (dataLock) {
-                String key = playerId.toString();
-                data.dailyOnlineSeconds.put(key, data.dailyOnlineSeconds.getOrDefault(key, 0) + seconds);
+        int today = dayClock.today();
+        if (today != rolloverDay) {
+            rolloverDay = today;
+            rolloverQueue = players.get().keySet().iterator();
+        }
+        if (rolloverQueue == null) {
+            return 0;
+        }
+        NeonEchoConfig cfg = config.raw();
+        int chunk = Math.max(1, cfg != null && cfg.dailyRolloverChunk != null ? cfg.dailyRolloverChunk : 250);
+        int renewed = 0;
+        for (int seen = 0; seen < chunk && rolloverQueue.hasNext(); seen++) {
+            UUID playerId = rolloverQueue.next();
+            synchronized (lockFor(playerId)) {
+                NeonPlayerRecord record = players.get().get(playerId);
+                if (record == null) {
+                    continue;
+                }
+                NeonPlayerRecord current = withTodayContract(record, today);
+                if (current != record) {
+                    update(playerId, current);
+                    renewed++;
+                }
+            }
+        }
+        if (!rolloverQueue.hasNext()) {
+            rolloverQueue = null;
+        }
+        return renewed;
+    }
+
+    private List<List<UUID>> groupByStripe(Set<UUID> playerIds) {
+        List<List<UUID>> byStripe = new ArrayList<>(Collections.nCopies(LOCK_STRIPES, null));
+        for (UUID playerId : playerIds) {
+            int stripe = stripeOf(playerId);
+            if (byStripe.get(stripe) == null) {
+                byStripe.set(stripe, new ArrayList<>());
             }
+            byStripe.get(stripe).add(playerId);
         }
+        return byStripe;
     }
 
-    public void tickEvents() {
-        NeonEchoConfig cfg = config;
-        if (cfg == null || !Boolean.TRUE.equals(cfg.eventsEnabled)) {
+    /**
+     * Samples when an online runner's next neon alert fires and sets a wheel timer for it, replacing any alert
+     * already pending. Nothing is scheduled while alerts are off.
+     */
+    private void scheduleAlert(UUID playerId, long now) {
+        NeonEventTable table = config.eventTable();
+        long delay = table.isGlobal() ? -1L : table.sampleDelayMillis(ThreadLocalRandom.current());
+        if (delay < 0L) {
+            alertSchedule.remove(playerId);
             return;
         }
-        int intervalSeconds = cfg.eventIntervalSeconds != null ? cfg.eventIntervalSeconds : 0;
-        if (intervalSeconds <= 0) {
+        long fireAt = now + delay;
+        alertSchedule.put(playerId, fireAt, fireAt);
+        expiries.schedule(new Expiry(ExpiryKind.ALERT, playerId, fireAt), fireAt);
+    }
+
+    /**
+     * Starts the alert a timer was set for and samples the runner's next one. A runner still in an event, or with
+     * no event allowed for their title at this hour, sits this one out.
+     */
+    private void fireAlert(UUID playerId, Object token, long now) {
+        if (!alertSchedule.remove(playerId, token) || !onlinePlayers.contains(playerId)) {
             return;
         }
-        List<NeonEchoConfig.EventConfig> eventConfigs = cfg.events != null ? cfg.events : List.of();
-        if (eventConfigs.isEmpty()) {
+        NeonCompiledConfig compiled = config;
+        scheduleAlert(playerId, now);
+        if (getActiveEvent(playerId) != null) {
             return;
         }
-        double chance = cfg.eventChance != null ? cfg.eventChance : 0.0;
-        long now = System.currentTimeMillis();
-        for (UUID playerId : onlinePlayers) {
-            if (getActiveEvent(playerId) != null) {
-                continue;
-            }
-            long lastRoll = eventRolls.getOrDefault(playerId, 0L);
-            if (now - lastRoll < intervalSeconds * 1000L) {
-                continue;
+        int titleSlot = compiled.titleIndex(getCred(playerId)) + 1;
+        NeonEventDef chosen = compiled.eventTable().pick(titleSlot, dayClock.hourOfDay(), ThreadLocalRandom.current());
+        if (chosen == null) {
+            return;
+        }
+        startEvent(playerId, chosen, now);
+        PlayerRef ref = onlineRefs.get(playerId);
+        if (ref != null) {
+            ref.sendMessage(Message.raw(formatMessage("Neon alert: " + chosen.name() + ".")));
+            if (!chosen.description().isBlank()) {
+                ref.sendMessage(Message.raw(formatMessage(chosen.description())));
             }
-            eventRolls.put(playerId, now);
-            if (ThreadLocalRandom.current().nextDouble() > chance) {
+            ref.sendMessage(Message.raw(formatMessage("Use /neonalert for details.")));
+        }
+    }
+
+    /**
+     * Samples when the next server-wide alert fires, in global mode. Any alert already pending is dropped, as is
+     * the pending alert when leaving global mode.
+     */
+    private void scheduleGlobalAlert(long now) {
+        NeonEventTable table = config.eventTable();
+        long delay = table.isGlobal() ? table.sampleDelayMillis(ThreadLocalRandom.current()) : -1L;
+        if (delay < 0L) {
+            globalAlertDue = 0L;
+            return;
+        }
+        long fireAt = now + delay;
+        globalAlertDue = fireAt;
+        expiries.schedule(new Expiry(ExpiryKind.GLOBAL_ALERT, null, fireAt), fireAt);
+    }
+
+    private void fireGlobalAlert(Object token, long now) {
+        if (!(token instanceof Long due) || due != globalAlertDue) {
+            return;
+        }
+        NeonCompiledConfig compiled = config;
+        scheduleGlobalAlert(now);
+        NeonGlobalAlert current = globalAlert;
+        if (current != null && !current.isExpired(now)) {
+            return;
+        }
+        NeonEventDef chosen = compiled.eventTable().pickGlobal(dayClock.hourOfDay(), ThreadLocalRandom.current());
+        if (chosen == null) {
+            return;
+        }
+        NeonEventState event = chosen.start(now);
+        NeonGlobalAlert alert = NeonGlobalAlert.start(globalAlertSerial.incrementAndGet(), event, chosen.config().titles);
+        globalAlert = alert;
+        globalAlertDirty = true;
+        expiries.schedule(new Expiry(ExpiryKind.GLOBAL_END, null, alert.serial()), event.expiresAt);
+        List<Message> lines = new ArrayList<>(3);
+        lines.add(Message.raw(formatMessage("Neon alert: " + chosen.name() + ".")));
+        if (!chosen.description().isBlank()) {
+            lines.add(Message.raw(formatMessage(chosen.description())));
+        }
+        lines.add(Message.raw(formatMessage("Use /neonalert for details.")));
+        broadcast(alert, lines);
+    }
+
+    private void endGlobalAlert(Object token) {
+        NeonGlobalAlert alert = globalAlert;
+        if (alert == null || !(token instanceof Long serial) || serial != alert.serial()) {
+            return;
+        }
+        globalAlert = null;
+        globalAlertDirty = true;
+        broadcast(alert, List.of(Message.raw(formatMessage("Neon alert ended: " + alert.event().def().name() + "."))));
+    }
+
+    /**
+     * Sends the same rendered lines to every online runner the alert is offered to.
+     */
+    private void broadcast(NeonGlobalAlert alert, List<Message> lines) {
+        for (Map.Entry<UUID, PlayerRef> entry : onlineRefs.entrySet()) {
+            if (!alert.isOfferedToAll() && !alert.isOfferedTo(getTitle(entry.getKey()))) {
                 continue;
             }
-            NeonEchoConfig.EventConfig chosen = eventConfigs.get(ThreadLocalRandom.current().nextInt(eventConfigs.size()));
-            NeonEventState event = startEvent(playerId, chosen, now);
-            PlayerRef ref = onlineRefs.get(playerId);
-            if (ref != null && event != null) {
-                ref.sendMessage(Message.raw(formatMessage("Neon alert: " + event.name + ".")));
-                if (event.description != null && !event.description.isBlank()) {
-                    ref.sendMessage(Message.raw(formatMessage(event.description)));
-                }
-                ref.sendMessage(Message.raw(formatMessage("Use /neonalert for details.")));
+            for (Message line : lines) {
+                entry.getValue().sendMessage(line);
             }
         }
     }
 
+    /**
+     * The shared alert if one is running and offered to this runner.
+     */
+    private NeonGlobalAlert globalAlertFor(UUID playerId, long now) {
+        NeonGlobalAlert alert = globalAlert;
+        if (alert == null || alert.isExpired(now)) {
+            return null;
+        }
+        return alert.isOfferedToAll() || alert.isOfferedTo(getTitle(playerId)) ? alert : null;
+    }
+
     public NeonEventState getActiveEvent(UUID playerId) {
         if (playerId == null) {
             return null;
         }
         long now = System.currentTimeMillis();
-        synchronized (dataLock) {
-            String key = playerId.toString();
-            NeonEventState event = data.eventStates.get(key);
+        NeonGlobalAlert alert = globalAlertFor(playerId, now);
+        NeonEventState shared = alert != null ? alert.viewFor(playerId) : null;
+        if (shared != null) {
+            return shared;
+        }
+        page(playerId);
+        synchronized (lockFor(playerId)) {
+            NeonPlayerRecord record = record(playerId);
+            NeonEventState event = record.event();
             if (event == null) {
                 return null;
             }
-            if (event.isExpired(now) || (event.usesRemaining != null && event.usesRemaining <= 0)) {
-                data.eventStates.remove(key);
+            if (!event.bind(config) || event.isExpired(now) || event.usesRemaining <= 0) {
+                update(playerId, record.withEvent(null));
                 return null;
             }
             return event;
@@ -691,299 +1546,278 @@ public final class NeonEchoState {
     }
 
     public EventClaimResult claimEventDrop(UUID playerId) {
+        NeonGlobalAlert alert = globalAlertFor(playerId, System.currentTimeMillis());
+        if (alert != null && alert.viewFor(playerId) != null) {
+            NeonEventDef def = alert.event().def();
+            int dropCred = def.dropCred();
+            if (def.type() != NeonEventDef.Type.DROP || dropCred <= 0) {
+                return EventClaimResult.notDrop();
+            }
+            int uses = alert.consume(playerId);
+            if (uses < 0) {
+                return EventClaimResult.expired();
+            }
+            globalAlertDirty = true;
+            NeonCredCell.Balance paid = applyCred(playerId, current -> clampCred((long) current + dropCred), true);
+            journal(NeonJournalEntry.alertUse(playerId.toString(), alert.event().expiresAt, uses, paid));
+            recordDropClaim(playerId);
+            return EventClaimResult.claimed(dropCred, uses);
+        }
         NeonEventState event = getActiveEvent(playerId);
         if (event == null) {
             return EventClaimResult.noEvent();
         }
-        if (!"drop".equalsIgnoreCase(event.type)) {
+        NeonEventDef def = event.def();
+        int dropCred = def.dropCred();
+        if (def.type() != NeonEventDef.Type.DROP || dropCred <= 0) {
             return EventClaimResult.notDrop();
         }
-        int dropCred = event.dropCred != null ? event.dropCred : 0;
-        if (dropCred <= 0) {
-            return EventClaimResult.notDrop();
-        }
-        synchronized (dataLock) {
-            NeonEventState active = data.eventStates.get(playerId.toString());
+        int uses;
+        synchronized (lockFor(playerId)) {
+            NeonPlayerRecord record = record(playerId);
+            NeonEventState active = record.event();
             if (active == null) {
                 return EventClaimResult.noEvent();
             }
-            int uses = active.usesRemaining != null ? active.usesRemaining : 1;
+            uses = active.usesRemaining;
             if (uses <= 0) {
-                data.eventStates.remove(playerId.toString());
+                update(playerId, record.withEvent(null));
                 return EventClaimResult.expired();
             }
             uses -= 1;
-            active.usesRemaining = uses;
-            addCred(playerId, dropCred);
             if (uses <= 0) {
-                data.eventStates.remove(playerId.toString());
+                update(playerId, record.withEvent(null));
             }
-            return EventClaimResult.claimed(dropCred, uses);
+            else {
+                update(playerId, record.withEvent(active.withUses(uses)));
+            }
+            NeonCredCell.Balance paid = applyCred(playerId, current -> clampCred((long) current + dropCred), true);
+            journal(NeonJournalEntry.eventUse(playerId.toString(), active.expiresAt, uses, paid));
+        }
+        recordDropClaim(playerId);
+        return EventClaimResult.claimed(dropCred, uses);
+    }
+
+    /**
+     * Counts a claimed drop toward today's objectives.
+     */
+    private void recordDropClaim(UUID playerId) {
+        if (!isDailyEnabled()) {
+            return;
         }
+        int today = dayClock.today();
+        List<String> completed;
+        synchronized (lockFor(playerId)) {
+            NeonPlayerRecord before = withTodayContract(record(playerId), today);
+            NeonPlayerRecord after = before.withDailyDropClaim();
+            update(playerId, after);
+            completed = dailyCompletions(playerId, before, after, NeonObjectiveType.Signal.DROP_CLAIM);
+        }
+        sendDailyCompletions(playerId, completed);
     }
 
     public int consumeEventBonus(UUID playerId) {
+        NeonGlobalAlert alert = globalAlertFor(playerId, System.currentTimeMillis());
+        if (alert != null && alert.viewFor(playerId) != null) {
+            NeonEventDef def = alert.event().def();
+            int bonus = def.bonusCred();
+            if (def.type() != NeonEventDef.Type.NETRUN_BONUS || bonus <= 0) {
+                return 0;
+            }
+            int uses = alert.consume(playerId);
+            if (uses < 0) {
+                return 0;
+            }
+            globalAlertDirty = true;
+            journal(NeonJournalEntry.alertUse(playerId.toString(), alert.event().expiresAt, uses, null));
+            return bonus;
+        }
         NeonEventState event = getActiveEvent(playerId);
-        if (event == null || !"netrun_bonus".equalsIgnoreCase(event.type)) {
+        if (event == null || event.def().type() != NeonEventDef.Type.NETRUN_BONUS) {
             return 0;
         }
-        int bonus = event.bonusCred != null ? event.bonusCred : 0;
+        int bonus = event.def().bonusCred();
         if (bonus <= 0) {
             return 0;
         }
-        synchronized (dataLock) {
-            NeonEventState active = data.eventStates.get(playerId.toString());
+        synchronized (lockFor(playerId)) {
+            NeonPlayerRecord record = record(playerId);
+            NeonEventState active = record.event();
             if (active == null) {
                 return 0;
             }
-            int uses = active.usesRemaining != null ? active.usesRemaining : 1;
+            int uses = active.usesRemaining;
             if (uses <= 0) {
-                data.eventStates.remove(playerId.toString());
+                update(playerId, record.withEvent(null));
                 return 0;
             }
             uses -= 1;
-            active.usesRemaining = uses;
             if (uses <= 0) {
-                data.eventStates.remove(playerId.toString());
+                update(playerId, record.withEvent(null));
             }
+            else {
+                update(playerId, record.withEvent(active.withUses(uses)));
+            }
+            journal(NeonJournalEntry.eventUse(playerId.toString(), active.expiresAt, uses, null));
             return bonus;
         }
     }
 
-    private NeonEventState startEvent(UUID playerId, NeonEchoConfig.EventConfig config, long now) {
-        if (config == null || playerId == null) {
-            return null;
+    private void startEvent(UUID playerId, NeonEventDef def, long now) {
+        NeonEventState state = def.start(now);
+        synchronized (lockFor(playerId)) {
+            update(playerId, record(playerId).withEvent(state));
         }
-        NeonEventState state = new NeonEventState();
-        state.id = config.id;
-        state.name = config.name != null ? config.name : "Neon Event";
-        state.description = config.description != null ? config.description : "";
-        state.type = config.type != null ? config.type : "netrun_bonus";
-        int duration = config.durationSeconds != null ? config.durationSeconds : 300;
-        state.expiresAt = now + Math.max(30, duration) * 1000L;
-        state.bonusCred = config.bonusCred != null ? config.bonusCred : 0;
-        state.dropCred = config.dropCred != null ? config.dropCred : 0;
-        state.usesRemaining = config.maxTriggers != null ? config.maxTriggers : 1;
-        synchronized (dataLock) {
-            data.eventStates.put(playerId.toString(), state);
-        }
-        return state;
+        expiries.schedule(new Expiry(ExpiryKind.EVENT, playerId, null), state.expiresAt);
     }
 
     public boolean isDailyEnabled() {
-        NeonEchoConfig cfg = config;
+        NeonEchoConfig cfg = config.raw();
         return cfg != null && Boolean.TRUE.equals(cfg.dailyEnabled);
     }
 
     public void prepareDaily(UUID playerId) {
-        ensureDailyContract(playerId);
+        dailyRecord(playerId);
     }
 
     public DailyContractView getDailyContractView(UUID playerId) {
-        if (!isDailyEnabled()) {
-            return DailyContractView.disabled();
-        }
-        NeonDailyContract contract = ensureDailyContract(playerId);
-        if (contract == null) {
+        NeonPlayerRecord record = dailyRecord(playerId);
+        if (record == null) {
             return DailyContractView.disabled();
         }
-        List<DailyObjectiveView> objectives = new ArrayList<>();
-        for (NeonDailyObjective objective : contract.objectives) {
-            DailyObjectiveView view = buildObjectiveView(playerId, objective);
-            objectives.add(view);
+        NeonDailyPool pool = config.dailyPool();
+        NeonDailyPlan plan = pool.planFor(record.dailyDay(), playerId);
+        List<DailyObjectiveView> objectives = new ArrayList<>(plan.size());
+        for (int i = 0; i < plan.size(); i++) {
+            objectives.add(new DailyObjectiveView(plan.label(i), plan.progress(i, record), plan.target(i),
+                    plan.isComplete(i, record)));
         }
-        boolean complete = objectives.stream().allMatch(DailyObjectiveView::complete);
-        boolean claimed = Boolean.TRUE.equals(contract.claimed);
-        int reward = contract.reward != null ? contract.reward : 0;
-        return new DailyContractView(true, claimed, complete, reward, objectives);
+        return new DailyContractView(true, record.dailyClaimed(), plan.isComplete(record), pool.reward(), objectives);
     }
 
     public ClaimResult claimDaily(UUID playerId) {
         if (!isDailyEnabled()) {
             return ClaimResult.disabled();
         }
-        NeonDailyContract contract = ensureDailyContract(playerId);
-        if (contract == null) {
+        if (dailyRecord(playerId) == null) {
             return ClaimResult.noContract();
         }
-        synchronized (dataLock) {
-            if (Boolean.TRUE.equals(contract.claimed)) {
+        NeonDailyPool pool = config.dailyPool();
+        synchronized (lockFor(playerId)) {
+            NeonPlayerRecord record = record(playerId);
+            if (record.dailyClaimed()) {
                 return ClaimResult.alreadyClaimed();
             }
-            List<DailyObjectiveView> objectives = new ArrayList<>();
-            for (NeonDailyObjective objective : contract.objectives) {
-                objectives.add(buildObjectiveView(playerId, objective));
-            }
-            boolean complete = objectives.stream().allMatch(DailyObjectiveView::complete);
-            if (!complete) {
+            if (!pool.planFor(record.dailyDay(), playerId).isComplete(record)) {
                 return ClaimResult.notComplete();
             }
-            contract.claimed = true;
-            int reward = contract.reward != null ? contract.reward : 0;
-            addCred(playerId, reward);
+            update(playerId, record.withDailyClaimed());
+            leaderboards.record(NeonLeaderboards.Metric.CLAIMS, playerId.toString(), 1);
+            int reward = pool.reward();
+            // The claimed bit goes in the same journal entry as the reward, so a replay cannot pay it twice.
+            NeonCredCell.Balance paid = applyCred(playerId, current -> clampCred((long) current + reward), true);
+            journal(NeonJournalEntry.claim(playerId.toString(), record.dailyDay(), paid));
             return ClaimResult.claimed(reward);
         }
     }
 
-    private DailyObjectiveView buildObjectiveView(UUID playerId, NeonDailyObjective objective) {
-        int target = objective.target != null ? objective.target : 0;
-        int progress = getObjectiveProgress(playerId, objective.type);
-        boolean complete = progress >= target && target > 0;
-        String label = formatObjectiveLabel(objective, target);
-        return new DailyObjectiveView(label, progress, target, complete);
-    }
-
-    private int getObjectiveProgress(UUID playerId, String type) {
-        String safeType = type == null ? "" : type.toLowerCase(Locale.ROOT);
-        synchronized (dataLock) {
-            String key = playerId.toString();
-            return switch (safeType) {
-                case "chat" -> data.dailyChatCount.getOrDefault(key, 0);
-                case "netrun" -> data.dailyNetrunWins.getOrDefault(key, 0);
-                case "online" -> data.dailyOnlineSeconds.getOrDefault(key, 0) / 60;
-                default -> 0;
-            };
+    /**
+     * The runner's record with its daily tallies on today, or {@code null} while dailies are off. Only takes the
+     * lock when the day has to be rolled over.
+     */
+    private NeonPlayerRecord dailyRecord(UUID playerId) {
+        if (!isDailyEnabled()) {
+            return null;
         }
-    }
-
-    private String formatObjectiveLabel(NeonDailyObjective objective, int target) {
-        String label = objective.label;
-        if (label == null || label.isBlank()) {
-            String type = objective.type == null ? "" : objective.type.toLowerCase(Locale.ROOT);
-            label = switch (type) {
-                case "chat" -> "Send {target} chat messages";
-                case "netrun" -> "Complete {target} netrun";
-                case "online" -> "Stay online for {target} minutes";
-                default -> "Complete {target} objective";
-            };
+        int today = dayClock.today();
+        page(playerId);
+        NeonPlayerRecord record = record(playerId);
+        if (record.dailyDay() == today) {
+            return record;
+        }
+        synchronized (lockFor(playerId)) {
+            record = record(playerId);
+            NeonPlayerRecord current = withTodayContract(record, today);
+            if (current != record) {
+                update(playerId, current);
+            }
+            return current;
         }
-        return label.replace("{target}", Integer.toString(target));
     }
 
-    private NeonDailyContract ensureDailyContract(UUID playerId) {
-        if (!isDailyEnabled()) {
+    /**
+     * Counts signals toward today's objectives: {@code before} and {@code after} are the runner's record either
+     * side of them, both on the same day. Only objectives listening to {@code signals} are checked. Returns the
+     * lines to push for objectives it completed, ending with a claim reminder once the last one is done, or
+     * {@code null} if it completed none.
+     */
+    private List<String> dailyCompletions(UUID playerId, NeonPlayerRecord before, NeonPlayerRecord after,
+                                          NeonObjectiveType.Signal... signals) {
+        if (before.dailyDay() != after.dailyDay() || after.dailyClaimed()) {
             return null;
         }
-        String today = LocalDate.now().toString();
-        String key = playerId.toString();
-        synchronized (dataLock) {
-            NeonDailyContract contract = data.dailyContracts.get(key);
-            if (contract == null || contract.date == null || !contract.date.equals(today)) {
-                contract = createDailyContract(today);
-                data.dailyContracts.put(key, contract);
-                data.dailyChatCount.put(key, 0);
-                data.dailyNetrunWins.put(key, 0);
-                data.dailyOnlineSeconds.put(key, 0);
-            }
-            else {
-                if (contract.claimed == null) {
-                    contract.claimed = false;
-                }
-                if (contract.objectives == null || contract.objectives.isEmpty()) {
-                    contract.objectives = createDailyContract(today).objectives;
-                }
-                if (contract.reward == null) {
-                    contract.reward = config.dailyReward != null ? config.dailyReward : 0;
+        NeonDailyPool pool = config.dailyPool();
+        NeonDailyPlan plan = pool.planFor(after.dailyDay(), playerId);
+        List<String> lines = null;
+        for (NeonObjectiveType.Signal signal : signals) {
+            for (int index : plan.listeners(signal)) {
+                if (!plan.isComplete(index, before) && plan.isComplete(index, after)) {
+                    if (lines == null) {
+                        lines = new ArrayList<>(2);
+                    }
+                    lines.add("Objective complete: " + plan.label(index) + ".");
                 }
             }
-            return contract;
         }
+        if (lines != null && plan.isComplete(after)) {
+            lines.add("Daily contract complete. Claim " + pool.reward() + " cred with /claim.");
+        }
+        return lines;
     }
 
-    private NeonDailyContract createDailyContract(String date) {
-        NeonEchoConfig cfg = config;
-        int reward = cfg != null && cfg.dailyReward != null ? cfg.dailyReward : 0;
-        int perDay = cfg != null && cfg.dailyObjectivesPerDay != null ? cfg.dailyObjectivesPerDay : 3;
-        boolean randomize = cfg != null && Boolean.TRUE.equals(cfg.dailyRandomizeObjectives);
-        List<NeonEchoConfig.DailyObjectiveConfig> pool = cfg != null ? cfg.dailyObjectivePool : Collections.emptyList();
-        List<NeonEchoConfig.DailyObjectiveConfig> selected = new ArrayList<>(pool);
-        if (randomize) {
-            Collections.shuffle(selected, ThreadLocalRandom.current());
+    private void sendDailyCompletions(UUID playerId, List<String> lines) {
+        if (lines == null) {
+            return;
         }
-        if (perDay > 0 && selected.size() > perDay) {
-            selected = new ArrayList<>(selected.subList(0, perDay));
+        for (String line : lines) {
+            sendToRunner(playerId, line);
         }
-        List<NeonDailyObjective> objectives = new ArrayList<>();
-        for (NeonEchoConfig.DailyObjectiveConfig entry : selected) {
-            if (entry == null) {
-                continue;
-            }
-            int target = entry.target != null ? entry.target : 0;
-            if (target <= 0) {
-                continue;
-            }
-            objectives.add(new NeonDailyObjective(entry.type, target, entry.label));
-        }
-        return new NeonDailyContract(date, reward, objectives, false);
+    }
+
+    /**
+     * Returns the record moved onto {@code today}, or the same record if it is already there. The contract
+     * itself is derived from the day and runner, so there is nothing else to set up.
+     */
+    private NeonPlayerRecord withTodayContract(NeonPlayerRecord record, int today) {
+        return record.dailyDay() == today ? record : record.withNewDay(today);
     }
 
     public NetrunTier resolveNetrunTier(String name) {
-        NeonEchoConfig cfg = config;
-        if (cfg == null || cfg.netrunTiers == null || cfg.netrunTiers.isEmpty()) {
-            return new NetrunTier("default", 4, 20, 2, 5, 1, 90);
-        }
-        String requested = name != null ? name.trim().toLowerCase(Locale.ROOT) : null;
-        String fallbackName = cfg.netrunDefaultTier != null ? cfg.netrunDefaultTier.toLowerCase(Locale.ROOT) : null;
-        NeonEchoConfig.NetrunTierConfig fallback = cfg.netrunTiers.get(0);
-        for (NeonEchoConfig.NetrunTierConfig tier : cfg.netrunTiers) {
-            if (tier != null && tier.name != null && tier.name.trim().equalsIgnoreCase(requested)) {
-                return toTier(tier);
-            }
-            if (tier != null && tier.name != null && tier.name.trim().equalsIgnoreCase(fallbackName)) {
-                fallback = tier;
-            }
-        }
-        return toTier(fallback);
+        return config.tier(name);
+    }
+
+    public boolean isNetrunTier(String name) {
+        return config.isTier(name);
     }
 
     public List<String> getNetrunTierNames() {
-        NeonEchoConfig cfg = config;
-        if (cfg == null || cfg.netrunTiers == null) {
-            return List.of();
-        }
-        List<String> names = new ArrayList<>();
-        for (NeonEchoConfig.NetrunTierConfig tier : cfg.netrunTiers) {
-            if (tier != null && tier.name != null && !tier.name.isBlank()) {
-                names.add(tier.name);
-            }
-        }
-        return names;
+        return config.tierNames();
     }
 
     public List<String> getNetrunRiskNames() {
-        NeonEchoConfig cfg = config;
-        if (cfg == null || cfg.netrunRisks == null) {
-            return List.of();
-        }
-        List<String> names = new ArrayList<>();
-        for (NeonEchoConfig.RiskProfileConfig risk : cfg.netrunRisks) {
-            if (risk != null && risk.name != null && !risk.name.isBlank()) {
-                names.add(risk.name);
-            }
-        }
-        return names;
+        return config.riskNames();
     }
 
     public NetrunRisk resolveNetrunRisk(String name) {
-        NeonEchoConfig cfg = config;
-        if (cfg == null || cfg.netrunRisks == null || cfg.netrunRisks.isEmpty()) {
-            return new NetrunRisk("normal", 1.0, 1.0, 1.0, 1.0, 1.0);
-        }
-        String requested = name != null ? name.trim().toLowerCase(Locale.ROOT) : null;
-        NeonEchoConfig.RiskProfileConfig fallback = cfg.netrunRisks.get(0);
-        for (NeonEchoConfig.RiskProfileConfig risk : cfg.netrunRisks) {
-            if (risk != null && risk.name != null && risk.name.trim().equalsIgnoreCase(requested)) {
-                return toRisk(risk);
-            }
-            if (risk != null && risk.name != null && risk.name.trim().equalsIgnoreCase("normal")) {
-                fallback = risk;
-            }
-        }
-        return toRisk(fallback);
+        return config.risk(name);
+    }
+
+    public boolean isNetrunRisk(String name) {
+        return config.isRisk(name);
     }
 
     public NetrunSession createSession(UUID playerId, NetrunTier tier, NetrunRisk risk, int stage, int stages, long now) {
-        NeonEchoConfig cfg = config;
+        NeonEchoConfig cfg = config.raw();
         int stageCount = stages > 0 ? stages : (cfg != null && cfg.netrunStages != null ? cfg.netrunStages : 1);
         stageCount = Math.max(1, stageCount);
         int stageIndex = Math.min(Math.max(1, stage), stageCount);
@@ -1040,41 +1874,13 @@ public final class NeonEchoState {
                 session.getStageRewardBonus(), session.getStageCooldownBonus());
     }
 
-    private NetrunTier toTier(NeonEchoConfig.NetrunTierConfig tier) {
-        String name = tier != null && tier.name != null ? tier.name : "default";
-        int codeLength = tier != null && tier.codeLength != null ? tier.codeLength : 4;
-        int timeout = tier != null && tier.timeoutSeconds != null ? tier.timeoutSeconds : 20;
-        int attempts = tier != null && tier.attempts != null ? tier.attempts : 2;
-        int reward = tier != null && tier.reward != null ? tier.reward : 5;
-        int failPenalty = tier != null && tier.failPenalty != null ? tier.failPenalty : 1;
-        int cooldown = tier != null && tier.cooldownSeconds != null ? tier.cooldownSeconds : 90;
-        return new NetrunTier(name, codeLength, timeout, attempts, reward, failPenalty, cooldown);
-    }
-
-    private NetrunRisk toRisk(NeonEchoConfig.RiskProfileConfig risk) {
-        String name = risk != null && risk.name != null ? risk.name : "normal";
-        double reward = risk != null && risk.rewardMultiplier != null ? risk.rewardMultiplier : 1.0;
-        double cooldown = risk != null && risk.cooldownMultiplier != null ? risk.cooldownMultiplier : 1.0;
-        double timeout = risk != null && risk.timeoutMultiplier != null ? risk.timeoutMultiplier : 1.0;
-        double penalty = risk != null && risk.failPenaltyMultiplier != null ? risk.failPenaltyMultiplier : 1.0;
-        double attempts = risk != null && risk.attemptsMultiplier != null ? risk.attemptsMultiplier : 1.0;
-        return new NetrunRisk(name, reward, cooldown, timeout, penalty, attempts);
-    }
-
     public NetrunSession getActiveSession(UUID playerId) {
-        NetrunSession session = netrunSessions.get(playerId);
-        if (session == null) {
-            return null;
-        }
-        if (session.isExpired(System.currentTimeMillis())) {
-            netrunSessions.remove(playerId);
-            return null;
-        }
-        return session;
+        return netrunSessions.get(playerId, System.currentTimeMillis());
     }
 
     public void startSession(UUID playerId, NetrunSession session) {
-        netrunSessions.put(playerId, session);
+        netrunSessions.put(playerId, session, session.getExpiresAt());
+        expiries.schedule(new Expiry(ExpiryKind.SESSION, playerId, session), session.getExpiresAt());
     }
 
     public void clearSession(UUID playerId) {
@@ -1083,21 +1889,87 @@ public final class NeonEchoState {
 
     public long getCooldownRemainingMillis(UUID playerId) {
         long now = System.currentTimeMillis();
-        Long until = netrunCooldowns.get(playerId);
-        if (until == null) {
-            return 0L;
-        }
-        long remaining = until - now;
-        if (remaining <= 0L) {
-            netrunCooldowns.remove(playerId);
-            return 0L;
-        }
-        return remaining;
+        Long until = netrunCooldowns.get(playerId, now);
+        return until != null ? until - now : 0L;
     }
 
     public void startCooldown(UUID playerId, int seconds) {
         long until = System.currentTimeMillis() + Math.max(0L, seconds) * 1000L;
-        netrunCooldowns.put(playerId, until);
+        netrunCooldowns.put(playerId, until, until);
+        if (seconds > 0) {
+            expiries.schedule(new Expiry(ExpiryKind.COOLDOWN, playerId, until), until);
+        }
+    }
+
+    /**
+     * Clears the sessions, cooldowns and events whose time is up and fires due neon alerts, telling runners who
+     * are online. Only the timers due since the last tick are visited. Also sweeps a slice of each transient map,
+     * which catches chat cooldowns that have no timer. Returns how many timers fired.
+     */
+    public int tickExpirations() {
+        long now = System.currentTimeMillis();
+        List<Expiry> due = expiries.advance(now);
+        for (Expiry expiry : due) {
+            UUID playerId = expiry.playerId();
+            switch (expiry.kind()) {
+                case SESSION -> {
+                    if (netrunSessions.remove(playerId, expiry.token())) {
+                        sendToRunner(playerId, "Trace lost. Your netrun timed out.");
+                    }
+                }
+                case COOLDOWN -> {
+                    if (netrunCooldowns.remove(playerId, expiry.token())) {
+                        sendToRunner(playerId, "Netrun rig cooled. Ready for another run.");
+                    }
+                }
+                case EVENT -> {
+                    NeonEventState ended = expireEvent(playerId, now);
+                    if (ended != null && ended.bind(config)) {
+                        sendToRunner(playerId, "Neon alert ended: " + ended.def().name() + ".");
+                    }
+                }
+                case ALERT -> fireAlert(playerId, expiry.token(), now);
+                case GLOBAL_ALERT -> fireGlobalAlert(expiry.token(), now);
+                case GLOBAL_END -> endGlobalAlert(expiry.token());
+            }
+        }
+        long cutoff = now - SWEEP_GRACE_MILLIS;
+        netrunSessions.sweep(cutoff, SWEEP_BUDGET);
+        netrunCooldowns.sweep(cutoff, SWEEP_BUDGET);
+        chatCredCooldowns.sweep(cutoff, SWEEP_BUDGET);
+        alertSchedule.sweep(cutoff, SWEEP_BUDGET);
+        return due.size();
+    }
+
+    public List<TransientStats> getTransientStats() {
+        return List.of(
+                TransientStats.of("sessions", netrunSessions),
+                TransientStats.of("cooldowns", netrunCooldowns),
+                TransientStats.of("chat", chatCredCooldowns),
+                TransientStats.of("alerts", alertSchedule));
+    }
+
+    /**
+     * Drops a resident runner's event if it has run out. Evicted runners are left alone; the event is cleared
+     * when they are next read.
+     */
+    private NeonEventState expireEvent(UUID playerId, long now) {
+        synchronized (lockFor(playerId)) {
+            NeonPlayerRecord record = players.get().get(playerId);
+            NeonEventState event = record != null ? record.event() : null;
+            if (event == null || !event.isExpired(now)) {
+                return null;
+            }
+            update(playerId, record.withEvent(null));
+            return event;
+        }
+    }
+
+    private void sendToRunner(UUID playerId, String message) {
+        PlayerRef ref = onlineRefs.get(playerId);
+        if (ref != null) {
+            ref.sendMessage(Message.raw(formatMessage(message)));
+        }
     }
 
     public String generateCode(int length) {
@@ -1125,19 +1997,24 @@ public final class NeonEchoState {
         }
     }
 
-    private static List<String> resolveLines(List<String> preferred, List<String> fallback) {
-        if (preferred == null || preferred.isEmpty()) {
-            return fallback;
-        }
-        return preferred;
+    public record CredEntry(String playerKey, String displayName, int cred) {
     }
 
-    public record CredEntry(String playerKey, String displayName, int cred) {
+    public record CredRank(int rank, int total) {
+    }
+
+    public record LeaderboardEntry(String playerKey, String displayName, long score, int rank) {
     }
 
     public record NetrunStats(int wins, int fails, int streak, int bestStreak) {
     }
 
+    public record TransientStats(String name, int size, long expired, long evicted) {
+        private static TransientStats of(String name, NeonExpiringMap<?, ?> map) {
+            return new TransientStats(name, map.size(), map.expiredCount(), map.evictedCount());
+        }
+    }
+
     public record PerkEffects(double rewardMultiplier, double cooldownMultiplier, double timeoutMultiplier,
                               int attemptBonus, int failPenaltyReduction) {
         public static PerkEffects defaults() {
@@ -1145,6 +2022,25 @@ public final class NeonEchoState {
         }
     }
 
+    private enum ExpiryKind {
+        SESSION,
+        COOLDOWN,
+        EVENT,
+        ALERT,
+        GLOBAL_ALERT,
+        GLOBAL_END
+    }
+
+    /**
+     * A wheel timer. {@code token} is the session, cooldown or alert it was set for, so a timer outlived by a
+     * newer one does nothing.
+     */
+    private record Expiry(ExpiryKind kind, UUID playerId, Object token) {
+    }
+
+    private record CachedPerkEffects(NeonPerkLoadout loadout, NeonCompiledConfig config, PerkEffects effects) {
+    }
+
     public record PerkPurchaseResult(PerkPurchaseStatus status, int rank, int cost) {
         public static PerkPurchaseResult disabled() {
             return new PerkPurchaseResult(PerkPurchaseStatus.DISABLED, 0, 0);
@@ -0,0 +1,316 @@
+package com.alexleo.neonecho;
+
+import com.google.gson.Gson;
+import com.google.gson.JsonParseException;
+import com.hypixel.hytale.logger.HytaleLogger;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Consumer;
+import java.util.logging.Level;
+
+/**
+ * Player data split into 256 bucket files keyed by the first two hex digits of the player UUID. Incremental
+ * saves rewrite only the buckets that hold dirty players; a full rewrite happens when the schema or the storage
+ * format changes. Buckets are pretty-printed JSON or {@link NeonSnapshotCodec} binary, written through
+ * {@link NeonSnapshotWriter}; a bucket that fails to decode falls back to its newest valid generation. That
+ * generation is the bucket's own, so a recovered bucket can be older than its neighbours and than the manifest,
+ * and its runners lose whatever changed since; the fallback is logged.
+ */
+public final class NeonEchoStore {
+    public static final int SCHEMA_VERSION = 1;
+
+    private static final String BUCKET_PREFIX = "bucket-";
+    private static final String JSON_SUFFIX = ".json";
+    private static final String BINARY_SUFFIX = ".bin";
+
+    public static final String FORMAT_JSON = "json";
+    public static final String FORMAT_BINARY = "binary";
+
+    private final HytaleLogger logger;
+    private final Gson gson;
+    private final Path storeDir;
+    private final Path manifestPath;
+    private final Path leaderboardsPath;
+    private final Path alertPath;
+    private final String format;
+    private final String suffix;
+    private final NeonSnapshotWriter writer;
+
+    public NeonEchoStore(HytaleLogger logger, Gson gson, Path storeDir, String format, NeonSnapshotWriter writer) {
+        this.logger = logger;
+        this.gson = gson;
+        this.storeDir = storeDir;
+        this.writer = writer;
+        this.manifestPath = storeDir.resolve("store.json");
+        this.leaderboardsPath = storeDir.resolve("leaderboards.json");
+        this.alertPath = storeDir.resolve("alert.json");
+        this.format = FORMAT_JSON.equalsIgnoreCase(format) ? FORMAT_JSON : FORMAT_BINARY;
+        this.suffix = FORMAT_JSON.equals(this.format) ? JSON_SUFFIX : BINARY_SUFFIX;
+    }
+
+    public String getFormat() {
+        return format;
+    }
+
+    public boolean exists() {
+        return !writer.candidates(manifestPath).isEmpty();
+    }
+
+    public boolean isCurrentSchema() {
+        Manifest manifest = readManifest();
+        return manifest != null && manifest.schema != null && manifest.schema == SCHEMA_VERSION
+                && format.equals(manifest.format != null ? manifest.format : FORMAT_JSON);
+    }
+
+    public NeonEchoData loadAll() {
+        NeonEchoData merged = new NeonEchoData();
+        forEachBucket(bucket -> merged.putAll(bucket, null));
+        merged.normalize();
+        return merged;
+    }
+
+    public NeonEchoData loadIndex() {
+        NeonEchoData index = new NeonEchoData();
+        forEachBucket(bucket -> {
+            for (Map.Entry<String, Integer> entry : bucket.cred.entrySet()) {
+                index.put(NeonEchoData.Field.CRED, entry.getKey(), entry.getValue());
+            }
+            for (Map.Entry<String, String> entry : bucket.names.entrySet()) {
+                index.put(NeonEchoData.Field.NAMES, entry.getKey(), entry.getValue());
+            }
+            for (Map.Entry<String, Integer> entry : bucket.netrunWins.entrySet()) {
+                index.put(NeonEchoData.Field.NETRUN_WINS, entry.getKey(), entry.getValue());
+            }
+            for (Map.Entry<String, Integer> entry : bucket.netrunBestStreak.entrySet()) {
+                index.put(NeonEchoData.Field.NETRUN_BEST_STREAK, entry.getKey(), entry.getValue());
+            }
+        });
+        return index;
+    }
+
+    public NeonEchoData loadPlayer(String key) {
+        NeonEchoData record = new NeonEchoData();
+        Path path = bucketPath(bucketOf(key));
+        if (writer.candidates(path).isEmpty()) {
+            return record;
+        }
+        NeonEchoData bucket = readBucket(path);
+        if (bucket == null) {
+            return null;
+        }
+        record.putAll(bucket, Set.of(key));
+        return record;
+    }
+
+    public boolean writeDelta(NeonEchoData.Delta delta) {
+        Map<String, Set<String>> byBucket = new HashMap<>();
+        for (String key : delta.playerKeys()) {
+            byBucket.computeIfAbsent(bucketOf(key), ignored -> new HashSet<>()).add(key);
+        }
+        boolean ok = true;
+        for (Map.Entry<String, Set<String>> entry : byBucket.entrySet()) {
+            Path path = bucketPath(entry.getKey());
+            NeonEchoData bucket = writer.candidates(path).isEmpty() ? new NeonEchoData() : readBucket(path);
+            if (bucket == null) {
+                ok = false;
+                continue;
+            }
+            bucket.apply(delta, entry.getValue());
+            ok &= writeBucket(path, bucket);
+        }
+        return ok;
+    }
+
+    public boolean writeAll(NeonEchoData data) {
+        Map<String, Set<String>> byBucket = new HashMap<>();
+        for (NeonEchoData.Field field : NeonEchoData.Field.values()) {
+            for (String key : field.of(data).keySet()) {
+                byBucket.computeIfAbsent(bucketOf(key), ignored -> new HashSet<>()).add(key);
+            }
+        }
+        boolean ok = true;
+        for (int i = 0; i < 256; i++) {
+            String bucketId = String.format("%02x", i);
+            Path path = bucketPath(bucketId);
+            Set<String> keys = byBucket.get(bucketId);
+            Path stale = storeDir.resolve(BUCKET_PREFIX + bucketId + (suffix.equals(JSON_SUFFIX) ? BINARY_SUFFIX : JSON_SUFFIX));
+            if (keys == null) {
+                ok &= writer.delete(path);
+                ok &= writer.delete(stale);
+                continue;
+            }
+            NeonEchoData bucket = new NeonEchoData();
+            bucket.putAll(data, keys);
+            ok &= writeBucket(path, bucket);
+            if (ok) {
+                ok = writer.delete(stale);
+            }
+        }
+        if (ok) {
+            ok = writeManifest();
+        }
+        return ok;
+    }
+
+    static String bucketOf(String key) {
+        if (key == null || key.length() < 2) {
+            return "00";
+        }
+        String prefix = key.substring(0, 2).toLowerCase(Locale.ROOT);
+        for (int i = 0; i < prefix.length(); i++) {
+            if (Character.digit(prefix.charAt(i), 16) < 0) {
+                return "00";
+            }
+        }
+        return prefix;
+    }
+
+    private void forEachBucket(Consumer<NeonEchoData> consumer) {
+        if (!Files.isDirectory(storeDir)) {
+            return;
+        }
+        try (DirectoryStream<Path> stream = Files.newDirectoryStream(storeDir, BUCKET_PREFIX + "*.{json,bin}")) {
+            for (Path path : stream) {
+                NeonEchoData bucket = readBucket(path);
+                if (bucket != null) {
+                    consumer.accept(bucket);
+                }
+            }
+        }
+        catch (IOException ex) {
+            logger.at(Level.WARNING).log("Failed to list NeonEcho player buckets: " + ex.getMessage());
+        }
+    }
+
+    private Path bucketPath(String bucketId) {
+        return storeDir.resolve(BUCKET_PREFIX + bucketId + suffix);
+    }
+
+    private NeonEchoData readBucket(Path path) {
+        for (Path candidate : writer.candidates(path)) {
+            NeonEchoData bucket = decodeBucket(candidate, path.getFileName().toString().endsWith(BINARY_SUFFIX));
+            if (bucket != null) {
+                if (!candidate.equals(path)) {
+                    logger.at(Level.WARNING).log("Recovered NeonEcho bucket " + path.getFileName() + " from " + candidate.getFileName());
+                }
+                return bucket;
+            }
+        }
+        return null;
+    }
+
+    private NeonEchoData decodeBucket(Path path, boolean binary) {
+        if (binary) {
+            try {
+                return NeonSnapshotCodec.decode(Files.readAllBytes(path));
+            }
+            catch (IOException ex) {
+                logger.at(Level.WARNING).log("Failed to read NeonEcho bucket " + path.getFileName() + ": " + ex.getMessage());
+                return null;
+            }
+        }
+        try (Reader reader = Files.newBufferedReader(path, StandardCharsets.UTF_8)) {
+            NeonEchoData bucket = gson.fromJson(reader, NeonEchoData.class);
+            if (bucket == null) {
+                // An empty file is a torn write, not an empty bucket; let the caller try an older generation.
+                logger.at(Level.WARNING).log("NeonEcho bucket " + path.getFileName() + " is empty");
+                return null;
+            }
+            bucket.normalize();
+            return bucket;
+        }
+        catch (IOException | JsonParseException ex) {
+            logger.at(Level.WARNING).log("Failed to read NeonEcho bucket " + path.getFileName() + ": " + ex.getMessage());
+            return null;
+        }
+    }
+
+    private boolean writeBucket(Path path, NeonEchoData bucket) {
+        if (suffix.equals(BINARY_SUFFIX)) {
+            return writer.write(path, NeonSnapshotCodec.encode(bucket));
+        }
+        return writer.write(path, gson.toJson(bucket).getBytes(StandardCharsets.UTF_8));
+    }
+
+    private Manifest readManifest() {
+        for (Path candidate : writer.candidates(manifestPath)) {
+            try (Reader reader = Files.newBufferedReader(candidate, StandardCharsets.UTF_8)) {
+                Manifest manifest = gson.fromJson(reader, Manifest.class);
+                if (manifest != null) {
+                    return manifest;
+                }
+            }
+            catch (IOException | JsonParseException ex) {
+                logger.at(Level.WARNING).log("Failed to read NeonEcho store manifest " + candidate.getFileName() + ": " + ex.getMessage());
+            }
+        }
+        return null;
+    }
+
+    private boolean writeManifest() {
+        Manifest manifest = new Manifest();
+        manifest.schema = SCHEMA_VERSION;
+        manifest.format = format;
+        return writer.write(manifestPath, gson.toJson(manifest).getBytes(StandardCharsets.UTF_8));
+    }
+
+    /**
+     * Saved leaderboard day buckets, or {@code null} if there are none yet.
+     */
+    public NeonLeaderboards.Data loadLeaderboards() {
+        for (Path candidate : writer.candidates(leaderboardsPath)) {
+            try (Reader reader = Files.newBufferedReader(candidate, StandardCharsets.UTF_8)) {
+                NeonLeaderboards.Data data = gson.fromJson(reader, NeonLeaderboards.Data.class);
+                if (data != null) {
+                    return data;
+                }
+            }
+            catch (IOException | JsonParseException ex) {
+                logger.at(Level.WARNING).log("Failed to read NeonEcho leaderboards " + candidate.getFileName() + ": " + ex.getMessage());
+            }
+        }
+        return null;
+    }
+
+    public boolean writeLeaderboards(NeonLeaderboards.Data data) {
+        return writer.write(leaderboardsPath, gson.toJson(data).getBytes(StandardCharsets.UTF_8));
+    }
+
+    public NeonGlobalAlert.Data loadAlert() {
+        for (Path candidate : writer.candidates(alertPath)) {
+            try (Reader reader = Files.newBufferedReader(candidate, StandardCharsets.UTF_8)) {
+                NeonGlobalAlert.Data data = gson.fromJson(reader, NeonGlobalAlert.Data.class);
+                if (data != null) {
+                    return data;
+                }
+            }
+            catch (IOException | JsonParseException ex) {
+                logger.at(Level.WARNING).log("Failed to read NeonEcho alert " + candidate.getFileName() + ": " + ex.getMessage());
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Saves the shared alert, or clears it when {@code data} is {@code null}.
+     */
+    public boolean writeAlert(NeonGlobalAlert.Data data) {
+        NeonGlobalAlert.Data saved = data != null ? data : new NeonGlobalAlert.Data();
+        return writer.write(alertPath, gson.toJson(saved).getBytes(StandardCharsets.UTF_8));
+    }
+
+    private static final class Manifest {
+        Integer schema;
+        String format;
+    }
+}
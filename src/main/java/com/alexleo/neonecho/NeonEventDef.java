@@ -0,0 +1,94 @@
+package com.alexleo.neonecho;
+
+import java.util.Locale;
+
+/**
+ * One configured neon alert, compiled with the rest of the config. Running alerts point at their definition
+ * instead of carrying copies of its text and payouts, and the type is resolved to an enum here so the payout
+ * paths compare a constant rather than a string.
+ */
+public final class NeonEventDef {
+    private final String id;
+    private final String name;
+    private final String description;
+    private final String typeName;
+    private final Type type;
+    private final int bonusCred;
+    private final int dropCred;
+    private final int maxUses;
+    private final long durationMillis;
+    private final NeonEchoConfig.EventConfig config;
+
+    NeonEventDef(NeonEchoConfig.EventConfig config) {
+        this.id = config.id;
+        this.name = config.name != null ? config.name : "Neon Event";
+        this.description = config.description != null ? config.description : "";
+        this.typeName = config.type != null ? config.type : "netrun_bonus";
+        this.type = Type.of(typeName);
+        this.bonusCred = config.bonusCred != null ? config.bonusCred : 0;
+        this.dropCred = config.dropCred != null ? config.dropCred : 0;
+        this.maxUses = config.maxTriggers != null ? config.maxTriggers : 1;
+        int duration = config.durationSeconds != null ? config.durationSeconds : 300;
+        this.durationMillis = Math.max(30, duration) * 1000L;
+        this.config = config;
+    }
+
+    public String id() {
+        return id;
+    }
+
+    public String name() {
+        return name;
+    }
+
+    public String description() {
+        return description;
+    }
+
+    /**
+     * The type as written in the config, for display.
+     */
+    public String typeName() {
+        return typeName;
+    }
+
+    public Type type() {
+        return type;
+    }
+
+    public int bonusCred() {
+        return bonusCred;
+    }
+
+    public int dropCred() {
+        return dropCred;
+    }
+
+    /**
+     * The config entry this was compiled from, for its weight, titles and hours.
+     */
+    NeonEchoConfig.EventConfig config() {
+        return config;
+    }
+
+    /**
+     * A fresh run of this alert starting at {@code now}, with every use left.
+     */
+    public NeonEventState start(long now) {
+        return new NeonEventState(this, now + durationMillis, maxUses);
+    }
+
+    public enum Type {
+        NETRUN_BONUS,
+        DROP,
+        OTHER;
+
+        static Type of(String name) {
+            return switch (name.trim().toLowerCase(Locale.ROOT)) {
+                case "netrun_bonus" -> NETRUN_BONUS;
+                case "drop" -> DROP;
+                default -> OTHER;
+            };
+        }
+    }
+}
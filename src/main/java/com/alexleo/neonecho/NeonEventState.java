@@ -1,32 +1,63 @@
 package com.alexleo.neonecho;
 
+/**
+ * A runner's running neon alert: which event, when it ends and how many uses are left. Name, text, type and
+ * payouts come from the event's {@link NeonEventDef}. Only the id is saved; after a load the state is bound to
+ * the current config's definition on first use, and a state whose event is no longer configured binds to nothing.
+ * An event configured without an id is saved by name and type instead, as every event was before ids were used
+ * for binding, and is bound by {@link NeonCompiledConfig#legacyEvent}.
+ * States are shared between record versions and must not be changed; use {@link #withUses}.
+ */
 public final class NeonEventState {
     public String id;
     public String name;
-    public String description;
     public String type;
-    public Long expiresAt;
-    public Integer bonusCred;
-    public Integer dropCred;
-    public Integer usesRemaining;
+    public long expiresAt;
+    public int usesRemaining;
+    private transient volatile NeonEventDef def;
 
     public NeonEventState() {
     }
 
+    NeonEventState(NeonEventDef def, long expiresAt, int usesRemaining) {
+        this(def.id(), def.id() == null ? def.name() : null, def.id() == null ? def.typeName() : null, def,
+                expiresAt, usesRemaining);
+    }
+
+    private NeonEventState(String id, String name, String type, NeonEventDef def, long expiresAt, int usesRemaining) {
+        this.id = id;
+        this.name = name;
+        this.type = type;
+        this.def = def;
+        this.expiresAt = expiresAt;
+        this.usesRemaining = usesRemaining;
+    }
+
+    /**
+     * The definition, or {@code null} for a loaded state that has not been bound.
+     */
+    public NeonEventDef def() {
+        return def;
+    }
+
+    /**
+     * Looks the definition up by id, or by name and type for a state without one, if this state does not have a
+     * definition yet. Returns whether it has one now.
+     */
+    public boolean bind(NeonCompiledConfig config) {
+        NeonEventDef current = def;
+        if (current == null) {
+            current = id != null ? config.event(id) : config.legacyEvent(name, type);
+            def = current;
+        }
+        return current != null;
+    }
+
     public boolean isExpired(long now) {
-        return expiresAt != null && now >= expiresAt;
+        return now >= expiresAt;
     }
 
-    public NeonEventState copy() {
-        NeonEventState copy = new NeonEventState();
-        copy.id = id;
-        copy.name = name;
-        copy.description = description;
-        copy.type = type;
-        copy.expiresAt = expiresAt;
-        copy.bonusCred = bonusCred;
-        copy.dropCred = dropCred;
-        copy.usesRemaining = usesRemaining;
-        return copy;
+    public NeonEventState withUses(int uses) {
+        return new NeonEventState(id, name, type, def, expiresAt, uses);
     }
 }
@@ -0,0 +1,214 @@
+package com.alexleo.neonecho;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.random.RandomGenerator;
+
+/**
+ * Neon alert timing and choice, compiled from the config. A runner's next alert is sampled once, as the number of
+ * {@code eventIntervalSeconds} rolls until one beats {@code eventChance}, so alerts keep the rate the per-interval
+ * roll gave them. Which alert fires depends on the runner's title and the hour of day; every title and hour gets
+ * an alias table over the events allowed there, so a pick is one random slot and one coin flip. In global mode
+ * the server has a single alert clock instead, picks by hour alone, and offers the alert to the titles the event
+ * names.
+ */
+public final class NeonEventTable {
+    private static final int HOURS = 24;
+
+    private final boolean global;
+    private final long intervalMillis;
+    private final double chance;
+    private final double logMiss;
+    private final NeonEventDef[] events;
+    private final AliasTable[] tables;
+    private final AliasTable[] globalTables = new AliasTable[HOURS];
+
+    private NeonEventTable(NeonEchoConfig raw, List<NeonEventDef> defs, String[] titles) {
+        boolean enabled = Boolean.TRUE.equals(raw.eventsEnabled);
+        this.global = "global".equalsIgnoreCase(raw.eventMode != null ? raw.eventMode.trim() : null);
+        int intervalSeconds = raw.eventIntervalSeconds != null ? raw.eventIntervalSeconds : 0;
+        this.intervalMillis = enabled ? Math.max(0, intervalSeconds) * 1000L : 0L;
+        this.chance = raw.eventChance != null ? Math.min(1.0, raw.eventChance) : 0.0;
+        this.logMiss = chance < 1.0 ? Math.log1p(-chance) : 0.0;
+
+        List<NeonEventDef> usable = new ArrayList<>();
+        for (NeonEventDef def : defs) {
+            if (weight(def) > 0.0) {
+                usable.add(def);
+            }
+        }
+        this.events = usable.toArray(new NeonEventDef[0]);
+
+        // Slot 0 is the fallback title for runners below every threshold.
+        String[] slotTitles = new String[titles.length + 1];
+        slotTitles[0] = "runner";
+        for (int i = 0; i < titles.length; i++) {
+            slotTitles[i + 1] = titles[i].trim().toLowerCase(Locale.ROOT);
+        }
+        this.tables = new AliasTable[slotTitles.length * HOURS];
+        Map<BitSet, AliasTable> shared = new HashMap<>();
+        for (int slot = 0; slot < slotTitles.length; slot++) {
+            for (int hour = 0; hour < HOURS; hour++) {
+                BitSet eligible = new BitSet(events.length);
+                for (int i = 0; i < events.length; i++) {
+                    if (allowsTitle(events[i], slotTitles[slot]) && allowsHour(events[i], hour)) {
+                        eligible.set(i);
+                    }
+                }
+                tables[slot * HOURS + hour] = eligible.isEmpty() ? null
+                        : shared.computeIfAbsent(eligible, set -> AliasTable.build(events, set));
+            }
+        }
+        for (int hour = 0; hour < HOURS; hour++) {
+            BitSet eligible = new BitSet(events.length);
+            for (int i = 0; i < events.length; i++) {
+                if (allowsHour(events[i], hour)) {
+                    eligible.set(i);
+                }
+            }
+            globalTables[hour] = eligible.isEmpty() ? null
+                    : shared.computeIfAbsent(eligible, set -> AliasTable.build(events, set));
+        }
+    }
+
+    static NeonEventTable compile(NeonEchoConfig raw, List<NeonEventDef> defs, String[] titles) {
+        return new NeonEventTable(raw, defs, titles);
+    }
+
+    /**
+     * Whether alerts are shared server-wide rather than rolled per runner.
+     */
+    public boolean isGlobal() {
+        return global;
+    }
+
+    /**
+     * Milliseconds until the next alert, or -1 if alerts are off.
+     */
+    public long sampleDelayMillis(RandomGenerator random) {
+        if (intervalMillis <= 0L || chance <= 0.0 || events.length == 0) {
+            return -1L;
+        }
+        long rolls = 1L;
+        if (chance < 1.0) {
+            // Inverse CDF of the geometric distribution; 1 - nextDouble() is in (0, 1].
+            double sampled = Math.ceil(Math.log(1.0 - random.nextDouble()) / logMiss);
+            rolls = Math.max(1L, (long) Math.min(sampled, 1_000_000.0));
+        }
+        return rolls * intervalMillis;
+    }
+
+    /**
+     * An alert for a runner holding title slot {@code titleSlot} (0 for none, else the title index plus one) at
+     * {@code hour}, or {@code null} if no event is allowed then.
+     */
+    public NeonEventDef pick(int titleSlot, int hour, RandomGenerator random) {
+        int index = titleSlot * HOURS + Math.floorMod(hour, HOURS);
+        AliasTable table = index >= 0 && index < tables.length ? tables[index] : null;
+        return table != null ? events[table.sample(random)] : null;
+    }
+
+    /**
+     * A server-wide alert for {@code hour}, or {@code null} if no event is allowed then.
+     */
+    public NeonEventDef pickGlobal(int hour, RandomGenerator random) {
+        AliasTable table = globalTables[Math.floorMod(hour, HOURS)];
+        return table != null ? events[table.sample(random)] : null;
+    }
+
+    private static double weight(NeonEventDef def) {
+        Double weight = def.config().weight;
+        return weight != null ? weight : 1.0;
+    }
+
+    private static boolean allowsTitle(NeonEventDef def, String title) {
+        NeonEchoConfig.EventConfig event = def.config();
+        if (event.titles == null || event.titles.isEmpty()) {
+            return true;
+        }
+        for (String allowed : event.titles) {
+            if (allowed != null && allowed.trim().toLowerCase(Locale.ROOT).equals(title)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * {@code fromHour} is inclusive and {@code toHour} exclusive; a window with {@code fromHour} after
+     * {@code toHour} wraps past midnight.
+     */
+    private static boolean allowsHour(NeonEventDef def, int hour) {
+        NeonEchoConfig.EventConfig event = def.config();
+        if (event.fromHour == null || event.toHour == null) {
+            return true;
+        }
+        int from = Math.floorMod(event.fromHour, HOURS);
+        int to = Math.floorMod(event.toHour, HOURS);
+        if (from == to) {
+            return true;
+        }
+        return from < to ? hour >= from && hour < to : hour >= from || hour < to;
+    }
+
+    /**
+     * Vose's alias method over a subset of the events.
+     */
+    private static final class AliasTable {
+        private final int[] eventIndex;
+        private final double[] probability;
+        private final int[] alias;
+
+        private AliasTable(int[] eventIndex, double[] probability, int[] alias) {
+            this.eventIndex = eventIndex;
+            this.probability = probability;
+            this.alias = alias;
+        }
+
+        static AliasTable build(NeonEventDef[] events, BitSet eligible) {
+            int size = eligible.cardinality();
+            int[] eventIndex = new int[size];
+            double total = 0.0;
+            for (int i = eligible.nextSetBit(0), slot = 0; i >= 0; i = eligible.nextSetBit(i + 1), slot++) {
+                eventIndex[slot] = i;
+                total += weight(events[i]);
+            }
+            double[] scaled = new double[size];
+            Deque<Integer> small = new ArrayDeque<>();
+            Deque<Integer> large = new ArrayDeque<>();
+            for (int slot = 0; slot < size; slot++) {
+                scaled[slot] = weight(events[eventIndex[slot]]) * size / total;
+                (scaled[slot] < 1.0 ? small : large).push(slot);
+            }
+            double[] probability = new double[size];
+            int[] alias = new int[size];
+            while (!small.isEmpty() && !large.isEmpty()) {
+                int less = small.pop();
+                int more = large.pop();
+                probability[less] = scaled[less];
+                alias[less] = more;
+                scaled[more] = scaled[more] + scaled[less] - 1.0;
+                (scaled[more] < 1.0 ? small : large).push(more);
+            }
+            // Whatever is left is 1 up to rounding.
+            while (!large.isEmpty()) {
+                probability[large.pop()] = 1.0;
+            }
+            while (!small.isEmpty()) {
+                probability[small.pop()] = 1.0;
+            }
+            return new AliasTable(eventIndex, probability, alias);
+        }
+
+        int sample(RandomGenerator random) {
+            int slot = random.nextInt(probability.length);
+            return eventIndex[random.nextDouble() < probability[slot] ? slot : alias[slot]];
+        }
+    }
+}
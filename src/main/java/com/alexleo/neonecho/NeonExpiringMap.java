@@ -0,0 +1,164 @@
+package com.alexleo.neonecho;
+
+import java.util.Iterator;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Runtime state that only matters until a deadline, such as cooldowns and sessions. Reads treat an entry past its
+ * deadline as absent, and {@link #sweep} removes expired entries a bounded number at a time from a cursor that
+ * carries over between calls, so entries go away even for players who never come back. Once the map holds more
+ * than its capacity, each put first removes expired entries from the cursor position. Live entries are only
+ * evicted from maps built to allow it, where losing one is harmless; other maps grow past their capacity rather
+ * than drop a cooldown or session that is still running.
+ */
+public final class NeonExpiringMap<K, V> {
+    private static final int TRIM_BUDGET = 64;
+
+    private final ConcurrentHashMap<K, Entry<V>> entries = new ConcurrentHashMap<>();
+    private final LongAdder expired = new LongAdder();
+    private final LongAdder evicted = new LongAdder();
+    private final boolean evictLive;
+    private volatile int capacity;
+    private Iterator<Map.Entry<K, Entry<V>>> cursor;
+
+    /**
+     * @param evictLive whether live entries may be dropped to stay under capacity
+     */
+    public NeonExpiringMap(int capacity, boolean evictLive) {
+        this.evictLive = evictLive;
+        setCapacity(capacity);
+    }
+
+    public void setCapacity(int capacity) {
+        this.capacity = Math.max(1, capacity);
+    }
+
+    public V get(K key, long now) {
+        Entry<V> entry = entries.get(key);
+        if (entry == null) {
+            return null;
+        }
+        if (entry.expiresAt() <= now) {
+            if (entries.remove(key, entry)) {
+                expired.increment();
+            }
+            return null;
+        }
+        return entry.value();
+    }
+
+    public void put(K key, V value, long expiresAt) {
+        entries.put(key, new Entry<>(value, expiresAt));
+        if (entries.size() > capacity) {
+            trim(System.currentTimeMillis());
+        }
+    }
+
+    /**
+     * Stores {@code value} unless the key holds an entry that is still live at {@code now}. Returns whether it
+     * was stored; the check and the store are one atomic step.
+     */
+    public boolean putIfExpired(K key, V value, long now, long expiresAt) {
+        boolean[] stored = {false};
+        entries.compute(key, (ignored, current) -> {
+            if (current != null && current.expiresAt() > now) {
+                return current;
+            }
+            stored[0] = true;
+            return new Entry<>(value, expiresAt);
+        });
+        if (stored[0] && entries.size() > capacity) {
+            trim(now);
+        }
+        return stored[0];
+    }
+
+    public void remove(K key) {
+        entries.remove(key);
+    }
+
+    /**
+     * Removes the entry only if it still holds {@code value}.
+     */
+    public boolean remove(K key, Object value) {
+        Entry<V> entry = entries.get(key);
+        return entry != null && Objects.equals(entry.value(), value) && entries.remove(key, entry);
+    }
+
+    /**
+     * Looks at up to {@code budget} entries past the cursor and removes those whose deadline is at or before
+     * {@code cutoff}. Returns how many were removed.
+     */
+    public synchronized int sweep(long cutoff, int budget) {
+        int removed = 0;
+        for (int seen = 0; seen < budget && !entries.isEmpty(); seen++) {
+            Map.Entry<K, Entry<V>> next = advance();
+            if (next == null) {
+                break;
+            }
+            if (next.getValue().expiresAt() <= cutoff && entries.remove(next.getKey(), next.getValue())) {
+                removed++;
+            }
+        }
+        expired.add(removed);
+        return removed;
+    }
+
+    public int size() {
+        return entries.size();
+    }
+
+    public long expiredCount() {
+        return expired.sum();
+    }
+
+    public long evictedCount() {
+        return evicted.sum();
+    }
+
+    /**
+     * Removes expired entries from the cursor position until the map is back under capacity, looking at no more
+     * than {@link #TRIM_BUDGET} entries so a map full of live ones does not cost a full pass on every put. Only
+     * then, and only if allowed, evicts live entries.
+     */
+    private synchronized void trim(long now) {
+        for (int seen = 0; seen < TRIM_BUDGET && entries.size() > capacity; seen++) {
+            Map.Entry<K, Entry<V>> next = advance();
+            if (next == null) {
+                return;
+            }
+            if (next.getValue().expiresAt() <= now && entries.remove(next.getKey(), next.getValue())) {
+                expired.increment();
+            }
+        }
+        while (evictLive && entries.size() > capacity) {
+            Map.Entry<K, Entry<V>> next = advance();
+            if (next == null) {
+                return;
+            }
+            if (entries.remove(next.getKey(), next.getValue())) {
+                evicted.increment();
+            }
+        }
+    }
+
+    /**
+     * The entry after the cursor, wrapping to the start once. The iterator is weakly consistent, so entries added
+     * behind the cursor are picked up on the next pass.
+     */
+    private Map.Entry<K, Entry<V>> advance() {
+        if (cursor == null || !cursor.hasNext()) {
+            cursor = entries.entrySet().iterator();
+            if (!cursor.hasNext()) {
+                return null;
+            }
+        }
+        return cursor.next();
+    }
+
+    private record Entry<V>(V value, long expiresAt) {
+    }
+}
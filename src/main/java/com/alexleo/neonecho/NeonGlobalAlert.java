@@ -0,0 +1,159 @@
+package com.alexleo.neonecho;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * One neon alert shared by every runner it is offered to. The event is held once; each runner only has a count
+ * of the uses they have spent, and only once they spend one. Runners who have spent none see the shared event
+ * itself, so nothing is copied per runner until they act on it.
+ */
+public final class NeonGlobalAlert {
+    private final long serial;
+    private final NeonEventState event;
+    private final Set<String> titles;
+    private final int maxUses;
+    private final Map<UUID, Integer> used = new ConcurrentHashMap<>();
+
+    private NeonGlobalAlert(long serial, NeonEventState event, Set<String> titles) {
+        this.serial = serial;
+        this.event = event;
+        this.titles = titles;
+        this.maxUses = event.usesRemaining;
+    }
+
+    /**
+     * An alert for {@code event}, offered to runners holding one of {@code titles}, or to all runners if there
+     * are none.
+     */
+    public static NeonGlobalAlert start(long serial, NeonEventState event, List<String> titles) {
+        Set<String> offered = new HashSet<>();
+        if (titles != null) {
+            for (String title : titles) {
+                if (title != null && !title.isBlank()) {
+                    offered.add(normalize(title));
+                }
+            }
+        }
+        return new NeonGlobalAlert(serial, event, Set.copyOf(offered));
+    }
+
+    public static NeonGlobalAlert restore(long serial, Data data) {
+        if (data == null || data.event == null) {
+            return null;
+        }
+        NeonGlobalAlert alert = start(serial, data.event, data.titles);
+        if (data.used != null) {
+            data.used.forEach((key, count) -> {
+                try {
+                    if (count != null && count > 0) {
+                        alert.used.put(UUID.fromString(key), count);
+                    }
+                }
+                catch (IllegalArgumentException ignored) {
+                    // Not a runner id; drop it.
+                }
+            });
+        }
+        return alert;
+    }
+
+    public long serial() {
+        return serial;
+    }
+
+    public NeonEventState event() {
+        return event;
+    }
+
+    public boolean isExpired(long now) {
+        return event.isExpired(now);
+    }
+
+    public boolean isOfferedToAll() {
+        return titles.isEmpty();
+    }
+
+    public boolean isOfferedTo(String title) {
+        return titles.isEmpty() || (title != null && titles.contains(normalize(title)));
+    }
+
+    /**
+     * The event as {@code playerId} sees it, or {@code null} once they have spent every use.
+     */
+    public NeonEventState viewFor(UUID playerId) {
+        Integer spent = used.get(playerId);
+        if (spent == null) {
+            return event;
+        }
+        int remaining = maxUses - spent;
+        if (remaining <= 0) {
+            return null;
+        }
+        return event.withUses(remaining);
+    }
+
+    /**
+     * Spends one of the runner's uses. Returns the uses left afterwards, or -1 if none were left to spend.
+     */
+    public int consume(UUID playerId) {
+        int[] remaining = {-1};
+        used.compute(playerId, (ignored, spent) -> {
+            int current = spent != null ? spent : 0;
+            if (current >= maxUses) {
+                return spent;
+            }
+            remaining[0] = maxUses - current - 1;
+            return current + 1;
+        });
+        return remaining[0];
+    }
+
+    /**
+     * Raises the runner's spent uses so that at most {@code remaining} are left, as a replayed {@link #consume}
+     * would. Returns whether anything changed.
+     */
+    public boolean restoreUses(UUID playerId, int remaining) {
+        int spent = Math.min(maxUses, maxUses - remaining);
+        if (spent <= 0) {
+            return false;
+        }
+        boolean[] changed = {false};
+        used.compute(playerId, (ignored, current) -> {
+            if (current != null && current >= spent) {
+                return current;
+            }
+            changed[0] = true;
+            return spent;
+        });
+        return changed[0];
+    }
+
+    public Data toData() {
+        Data data = new Data();
+        data.event = event;
+        data.titles = new ArrayList<>(titles);
+        used.forEach((playerId, count) -> data.used.put(playerId.toString(), count));
+        return data;
+    }
+
+    private static String normalize(String title) {
+        return title.trim().toLowerCase(Locale.ROOT);
+    }
+
+    /**
+     * Saved form: the event once, and spent uses by runner.
+     */
+    public static final class Data {
+        public NeonEventState event;
+        public List<String> titles = new ArrayList<>();
+        public Map<String, Integer> used = new HashMap<>();
+    }
+}
@@ -25,7 +25,7 @@ public class NeonHelpCommand extends CommandBase {
         ctx.sendMessage(Message.raw(state.formatMessage("/neonstatus - version + uptime")));
         ctx.sendMessage(Message.raw(state.formatMessage("/neonmute - toggle join message")));
         ctx.sendMessage(Message.raw(state.formatMessage("/cred - check Street Cred")));
-        ctx.sendMessage(Message.raw(state.formatMessage("/credtop - top Street Cred")));
+        ctx.sendMessage(Message.raw(state.formatMessage("/credtop [metric] [window] - top runners")));
         ctx.sendMessage(Message.raw(state.formatMessage("/credset - set Street Cred (admin)")));
         ctx.sendMessage(Message.raw(state.formatMessage("/neonprofile - runner profile")));
         ctx.sendMessage(Message.raw(state.formatMessage("/neonperks - perk loadout + vendor")));
@@ -35,5 +35,6 @@ public class NeonHelpCommand extends CommandBase {
         ctx.sendMessage(Message.raw(state.formatMessage("/contracts - daily objectives")));
         ctx.sendMessage(Message.raw(state.formatMessage("/claim - claim daily reward")));
         ctx.sendMessage(Message.raw(state.formatMessage("/neonreload - reload config (admin)")));
+        ctx.sendMessage(Message.raw(state.formatMessage("/neondata - export or import runner data (admin)")));
     }
 }
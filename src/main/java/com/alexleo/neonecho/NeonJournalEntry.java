@@ -0,0 +1,206 @@
+package com.alexleo.neonecho;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * One line of the {@link NeonEchoJournal}, written as JSON. {@code op} says which fields are set:
+ * <ul>
+ * <li>{@code cred}: a runner's balance and its sequence.</li>
+ * <li>{@code win}, {@code fail}: netrun totals and streak; a win also carries the day's win tally and the day.</li>
+ * <li>{@code perk}: a bought rank, the balance after paying for it and the active list.</li>
+ * <li>{@code loadout}: an equip, unequip or slot trim, which only sets the active list. Older journals wrote
+ * these as a {@code perk} entry with no perk.</li>
+ * <li>{@code claim}: a claimed daily contract, its day and the reward balance.</li>
+ * <li>{@code event}, {@code alert}: a use spent on the runner's own alert or on the global alert, the uses left,
+ * the alert's expiry to tell it apart from later ones, and the drop balance if it paid any.</li>
+ * </ul>
+ * Values are absolute, so replaying an entry already in the snapshot changes nothing. Cred only replays past its
+ * saved sequence, uses left only go down, and daily values follow the rules in {@link #applyTo}. Global alert
+ * entries are applied by the state, not here. Unknown ops are skipped.
+ */
+public final class NeonJournalEntry {
+    public static final String OP_CRED = "cred";
+    public static final String OP_WIN = "win";
+    public static final String OP_FAIL = "fail";
+    public static final String OP_PERK = "perk";
+    public static final String OP_LOADOUT = "loadout";
+    public static final String OP_CLAIM = "claim";
+    public static final String OP_EVENT = "event";
+    public static final String OP_ALERT = "alert";
+
+    public String op;
+    public String player;
+    public Integer cred;
+    public Long sequence;
+    public Integer wins;
+    public Integer fails;
+    public Integer streak;
+    public Integer bestStreak;
+    public Integer dailyWins;
+    public Integer day;
+    public String perk;
+    public Integer rank;
+    public List<String> active;
+    public Long expiresAt;
+    public Integer uses;
+
+    public NeonJournalEntry() {
+    }
+
+    public static NeonJournalEntry cred(String player, NeonCredCell.Balance balance) {
+        NeonJournalEntry entry = new NeonJournalEntry();
+        entry.op = OP_CRED;
+        entry.player = player;
+        entry.cred = balance.cred();
+        entry.sequence = balance.sequence();
+        return entry;
+    }
+
+    public static NeonJournalEntry win(String player, int wins, int streak, int bestStreak, int dailyWins, int day) {
+        NeonJournalEntry entry = new NeonJournalEntry();
+        entry.op = OP_WIN;
+        entry.player = player;
+        entry.wins = wins;
+        entry.streak = streak;
+        entry.bestStreak = bestStreak;
+        entry.dailyWins = dailyWins;
+        entry.day = day;
+        return entry;
+    }
+
+    public static NeonJournalEntry fail(String player, int fails) {
+        NeonJournalEntry entry = new NeonJournalEntry();
+        entry.op = OP_FAIL;
+        entry.player = player;
+        entry.fails = fails;
+        entry.streak = 0;
+        return entry;
+    }
+
+    public static NeonJournalEntry perk(String player, String perk, int rank, NeonCredCell.Balance balance, List<String> active) {
+        NeonJournalEntry entry = new NeonJournalEntry();
+        entry.op = OP_PERK;
+        entry.player = player;
+        entry.perk = perk;
+        entry.rank = rank;
+        entry.cred = balance.cred();
+        entry.sequence = balance.sequence();
+        entry.active = new ArrayList<>(active);
+        return entry;
+    }
+
+    /**
+     * An equip, unequip or slot trim: only the active list changes.
+     */
+    public static NeonJournalEntry loadout(String player, List<String> active) {
+        NeonJournalEntry entry = new NeonJournalEntry();
+        entry.op = OP_LOADOUT;
+        entry.player = player;
+        entry.active = new ArrayList<>(active);
+        return entry;
+    }
+
+    /**
+     * A claimed daily contract and the reward paid for it.
+     */
+    public static NeonJournalEntry claim(String player, int day, NeonCredCell.Balance balance) {
+        NeonJournalEntry entry = new NeonJournalEntry();
+        entry.op = OP_CLAIM;
+        entry.player = player;
+        entry.day = day;
+        entry.cred = balance.cred();
+        entry.sequence = balance.sequence();
+        return entry;
+    }
+
+    /**
+     * A use spent on the runner's own alert, which is told apart from later alerts by its expiry. {@code balance}
+     * is the drop payout, or {@code null} when the use paid nothing yet.
+     */
+    public static NeonJournalEntry eventUse(String player, long expiresAt, int uses, NeonCredCell.Balance balance) {
+        return use(OP_EVENT, player, expiresAt, uses, balance);
+    }
+
+    /**
+     * Like {@link #eventUse}, for a use spent on the global alert.
+     */
+    public static NeonJournalEntry alertUse(String player, long expiresAt, int uses, NeonCredCell.Balance balance) {
+        return use(OP_ALERT, player, expiresAt, uses, balance);
+    }
+
+    private static NeonJournalEntry use(String op, String player, long expiresAt, int uses,
+                                        NeonCredCell.Balance balance) {
+        NeonJournalEntry entry = new NeonJournalEntry();
+        entry.op = op;
+        entry.player = player;
+        entry.expiresAt = expiresAt;
+        entry.uses = uses;
+        if (balance != null) {
+            entry.cred = balance.cred();
+            entry.sequence = balance.sequence();
+        }
+        return entry;
+    }
+
+    /**
+     * Applies this entry to a record. Cred lands in the record's shared cell and only if newer than the cell. An
+     * entry from a later day than the record's first moves the record onto that day, as the rollover itself is not
+     * journaled; daily wins and claims from an earlier day are left out. Chat, online time and drop tallies are
+     * not journaled either, so a crash loses whatever progress on them came after the last flush.
+     */
+    public NeonPlayerRecord applyTo(NeonPlayerRecord record) {
+        if (op == null) {
+            return record;
+        }
+        if (cred != null) {
+            record.credCell().restore(cred, sequence);
+        }
+        return switch (op) {
+            case OP_WIN -> {
+                NeonPlayerRecord current = day != null && day > record.dailyDay() ? record.withNewDay(day) : record;
+                NeonPlayerRecord updated = current.withNetrun(
+                        wins != null ? wins : current.netrunWins(),
+                        current.netrunFails(),
+                        streak != null ? streak : current.netrunStreak(),
+                        bestStreak != null ? bestStreak : current.netrunBestStreak());
+                if (dailyWins == null || (day != null && day != updated.dailyDay())) {
+                    yield updated;
+                }
+                updated = updated.withDaily(updated.dailyChatCount(), dailyWins, updated.dailyOnlineSeconds());
+                yield streak != null && streak > updated.dailyBestStreak() ? updated.withDailyBestStreak(streak) : updated;
+            }
+            case OP_FAIL -> record.withNetrun(
+                    record.netrunWins(),
+                    fails != null ? fails : record.netrunFails(),
+                    streak != null ? streak : record.netrunStreak(),
+                    record.netrunBestStreak());
+            case OP_PERK, OP_LOADOUT -> {
+                NeonPerkLoadout loadout = record.perkLoadout() != null ? record.perkLoadout().copy() : new NeonPerkLoadout();
+                if (perk != null && rank != null) {
+                    loadout.owned.put(perk, rank);
+                }
+                if (active != null) {
+                    loadout.active = new ArrayList<>(active);
+                }
+                yield record.withPerkLoadout(loadout);
+            }
+            case OP_CLAIM -> {
+                if (day == null || day < record.dailyDay()) {
+                    yield record;
+                }
+                NeonPlayerRecord current = day > record.dailyDay() ? record.withNewDay(day) : record;
+                yield current.withDailyClaimed();
+            }
+            case OP_EVENT -> {
+                NeonEventState event = record.event();
+                if (event == null || uses == null || expiresAt == null || event.expiresAt != expiresAt
+                        || uses >= event.usesRemaining) {
+                    yield record;
+                }
+                yield record.withEvent(uses > 0 ? event.withUses(uses) : null);
+            }
+            default -> record;
+        };
+    }
+}
@@ -0,0 +1,338 @@
+package com.alexleo.neonecho;
+
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.LongSupplier;
+
+/**
+ * Leaderboards for each ranked counter, all-time and over rolling windows of days. Gains are added to a bucket
+ * for the day they were folded in, and every window keeps running totals with a {@link NeonRankIndex} over
+ * them, so a board query is a tree walk. Buckets are only re-added when the day rolls over and a window's
+ * oldest day drops out. {@link #record} never blocks; gains wait in a pending map until the next query,
+ * rollover or save folds them in.
+ */
+public final class NeonLeaderboards {
+    private static final Window[] ROLLING = {Window.DAILY, Window.WEEKLY, Window.SEASON};
+
+    private final int seasonDays;
+    private final Map<Metric, Map<String, Long>> pending = new EnumMap<>(Metric.class);
+    private final Map<Metric, NeonRankIndex> allTime = new EnumMap<>(Metric.class);
+    private final Map<Metric, Map<String, Long>> lifetime = new EnumMap<>(Metric.class);
+    private final TreeMap<Long, Map<Metric, Map<String, Long>>> days = new TreeMap<>();
+    private final Map<Window, Map<Metric, Map<String, Long>>> totals = new EnumMap<>(Window.class);
+    private final Map<Window, Map<Metric, NeonRankIndex>> ranks = new EnumMap<>(Window.class);
+    private long currentDay;
+    private boolean dirty;
+
+    public NeonLeaderboards(int seasonDays, long today) {
+        this.seasonDays = Math.max(Window.WEEKLY.days, seasonDays);
+        this.currentDay = today;
+        for (Metric metric : Metric.values()) {
+            pending.put(metric, new ConcurrentHashMap<>());
+            allTime.put(metric, new NeonRankIndex());
+            lifetime.put(metric, new HashMap<>());
+        }
+        for (Window window : ROLLING) {
+            Map<Metric, Map<String, Long>> windowTotals = new EnumMap<>(Metric.class);
+            Map<Metric, NeonRankIndex> windowRanks = new EnumMap<>(Metric.class);
+            for (Metric metric : Metric.values()) {
+                windowTotals.put(metric, new HashMap<>());
+                windowRanks.put(metric, new NeonRankIndex());
+            }
+            totals.put(window, windowTotals);
+            ranks.put(window, windowRanks);
+        }
+    }
+
+    /**
+     * Rebuilds boards from saved buckets. Buckets older than the season, and counters this version does not
+     * know, are dropped.
+     */
+    public static NeonLeaderboards restore(Data data, int seasonDays, long today) {
+        NeonLeaderboards boards = new NeonLeaderboards(seasonDays, data != null && data.day != null ? data.day : today);
+        if (data == null) {
+            return boards;
+        }
+        if (data.days != null) {
+            for (Map.Entry<String, Map<String, Map<String, Long>>> day : data.days.entrySet()) {
+                Long epochDay = parseDay(day.getKey());
+                if (epochDay == null || day.getValue() == null) {
+                    continue;
+                }
+                Map<Metric, Map<String, Long>> buckets = new EnumMap<>(Metric.class);
+                day.getValue().forEach((id, values) -> {
+                    Metric metric = Metric.fromId(id);
+                    if (metric != null && values != null) {
+                        buckets.put(metric, new HashMap<>(values));
+                    }
+                });
+                boards.days.put(epochDay, buckets);
+            }
+        }
+        if (data.lifetime != null) {
+            data.lifetime.forEach((id, values) -> {
+                Metric metric = Metric.fromId(id);
+                if (metric != null && metric.counted && values != null) {
+                    boards.lifetime.get(metric).putAll(values);
+                    values.forEach(boards.allTime.get(metric)::update);
+                }
+            });
+        }
+        synchronized (boards) {
+            boards.rebuild();
+            boards.roll(today);
+        }
+        return boards;
+    }
+
+    /**
+     * Adds to a runner's score for today's windows. Peak counters keep the highest value recorded instead.
+     */
+    public void record(Metric metric, String key, long amount) {
+        if (amount > 0) {
+            pending.get(metric).merge(key, amount, metric::combine);
+        }
+    }
+
+    /**
+     * Sets the all-time score of a counter that lives in the player record. Lifetime-counted metrics are
+     * ranked from their gains instead.
+     */
+    public void updateAllTime(Metric metric, String key, LongSupplier score) {
+        allTime.get(metric).update(key, score);
+    }
+
+    public void updateAllTime(Metric metric, String key, long score) {
+        allTime.get(metric).update(key, score);
+    }
+
+    /**
+     * Forgets the all-time boards backed by player records, ahead of re-indexing them.
+     */
+    public synchronized void clearRecordBoards() {
+        for (Metric metric : Metric.values()) {
+            if (!metric.counted) {
+                allTime.get(metric).clear();
+            }
+        }
+    }
+
+    public synchronized List<NeonRankIndex.Ranked> top(Metric metric, Window window, int limit, long today) {
+        return index(metric, window, today).top(limit);
+    }
+
+    public synchronized Standing standing(Metric metric, Window window, String key, long today) {
+        NeonRankIndex index = index(metric, window, today);
+        return new Standing(index.rank(key), index.size());
+    }
+
+    /**
+     * Folds pending gains and, if the date has moved on, starts a new day: expired buckets are dropped and the
+     * rolling windows are summed again from the buckets still in range.
+     */
+    public synchronized void roll(long today) {
+        fold();
+        if (today <= currentDay) {
+            return;
+        }
+        currentDay = today;
+        days.headMap(today - seasonDays + 1).clear();
+        rebuild();
+        dirty = true;
+    }
+
+    /**
+     * The boards to save, or {@code null} if nothing changed since the last call. Call {@link #markDirty} if the
+     * save fails.
+     */
+    public synchronized Data drainChanges(long today) {
+        roll(today);
+        if (!dirty) {
+            return null;
+        }
+        dirty = false;
+        Data data = new Data();
+        data.day = currentDay;
+        days.forEach((epochDay, buckets) -> {
+            Map<String, Map<String, Long>> saved = new HashMap<>();
+            buckets.forEach((metric, values) -> saved.put(metric.id, new HashMap<>(values)));
+            data.days.put(Long.toString(epochDay), saved);
+        });
+        lifetime.forEach((metric, values) -> {
+            if (!values.isEmpty()) {
+                data.lifetime.put(metric.id, new HashMap<>(values));
+            }
+        });
+        return data;
+    }
+
+    public synchronized void markDirty() {
+        dirty = true;
+    }
+
+    private NeonRankIndex index(Metric metric, Window window, long today) {
+        roll(today);
+        return window == Window.ALL ? allTime.get(metric) : ranks.get(window).get(metric);
+    }
+
+    private void fold() {
+        for (Metric metric : Metric.values()) {
+            Map<String, Long> gains = pending.get(metric);
+            if (gains.isEmpty()) {
+                continue;
+            }
+            Map<String, Long> bucket = days.computeIfAbsent(currentDay, ignored -> new EnumMap<>(Metric.class))
+                    .computeIfAbsent(metric, ignored -> new HashMap<>());
+            for (String key : gains.keySet()) {
+                Long amount = gains.remove(key);
+                if (amount == null) {
+                    continue;
+                }
+                bucket.merge(key, amount, metric::combine);
+                for (Window window : ROLLING) {
+                    long total = totals.get(window).get(metric).merge(key, amount, metric::combine);
+                    ranks.get(window).get(metric).update(key, total);
+                }
+                if (metric.counted) {
+                    allTime.get(metric).update(key, lifetime.get(metric).merge(key, amount, Long::sum));
+                }
+            }
+            dirty = true;
+        }
+    }
+
+    private void rebuild() {
+        for (Window window : ROLLING) {
+            long first = currentDay - window.length(seasonDays) + 1;
+            for (Metric metric : Metric.values()) {
+                Map<String, Long> windowTotals = totals.get(window).get(metric);
+                NeonRankIndex index = ranks.get(window).get(metric);
+                windowTotals.clear();
+                index.clear();
+                for (Map<Metric, Map<String, Long>> buckets : days.tailMap(first).values()) {
+                    Map<String, Long> bucket = buckets.get(metric);
+                    if (bucket != null) {
+                        bucket.forEach((key, amount) -> windowTotals.merge(key, amount, metric::combine));
+                    }
+                }
+                windowTotals.forEach(index::update);
+            }
+        }
+    }
+
+    private static Long parseDay(String value) {
+        try {
+            return Long.parseLong(value);
+        }
+        catch (NumberFormatException ex) {
+            return null;
+        }
+    }
+
+    public enum Metric {
+        CRED("cred", "Street Cred earned", "Street Cred", false, false),
+        WINS("wins", "Netrun wins", "Netrun wins", false, false),
+        STREAK("streak", "Best netrun streak", "Best netrun streak", true, false),
+        CLAIMS("claims", "Daily contracts claimed", "Daily contracts claimed", false, true);
+
+        private final String id;
+        private final String windowLabel;
+        private final String allTimeLabel;
+        private final boolean peak;
+        private final boolean counted;
+
+        Metric(String id, String windowLabel, String allTimeLabel, boolean peak, boolean counted) {
+            this.id = id;
+            this.windowLabel = windowLabel;
+            this.allTimeLabel = allTimeLabel;
+            this.peak = peak;
+            this.counted = counted;
+        }
+
+        public String id() {
+            return id;
+        }
+
+        /**
+         * All-time cred ranks the current balance; windows rank what was earned in them.
+         */
+        public String label(Window window) {
+            return window == Window.ALL ? allTimeLabel : windowLabel;
+        }
+
+        private long combine(long current, long gain) {
+            return peak ? Math.max(current, gain) : current + gain;
+        }
+
+        public static Metric fromId(String id) {
+            if (id == null) {
+                return null;
+            }
+            String normalized = id.trim().toLowerCase(Locale.ROOT);
+            for (Metric metric : values()) {
+                if (metric.id.equals(normalized)) {
+                    return metric;
+                }
+            }
+            return switch (normalized) {
+                case "netrun", "win" -> WINS;
+                case "best", "beststreak" -> STREAK;
+                case "contracts", "claim" -> CLAIMS;
+                default -> null;
+            };
+        }
+    }
+
+    public enum Window {
+        ALL("all", 0),
+        DAILY("daily", 1),
+        WEEKLY("weekly", 7),
+        SEASON("season", 0);
+
+        private final String id;
+        private final int days;
+
+        Window(String id, int days) {
+            this.id = id;
+            this.days = days;
+        }
+
+        public String id() {
+            return id;
+        }
+
+        private int length(int seasonDays) {
+            return this == SEASON ? seasonDays : days;
+        }
+
+        public static Window fromId(String id) {
+            if (id == null) {
+                return null;
+            }
+            return switch (id.trim().toLowerCase(Locale.ROOT)) {
+                case "all", "alltime", "all-time" -> ALL;
+                case "daily", "day", "today" -> DAILY;
+                case "weekly", "week" -> WEEKLY;
+                case "season", "seasonal" -> SEASON;
+                default -> null;
+            };
+        }
+    }
+
+    public record Standing(int rank, int total) {
+    }
+
+    /**
+     * Saved form: day buckets keyed by epoch day, then metric id, then player.
+     */
+    public static final class Data {
+        public Long day;
+        public Map<String, Map<String, Map<String, Long>>> days = new HashMap<>();
+        public Map<String, Map<String, Long>> lifetime = new HashMap<>();
+    }
+}
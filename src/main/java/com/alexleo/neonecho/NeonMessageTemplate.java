@@ -0,0 +1,201 @@
+package com.alexleo.neonecho;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * One message line with {@code {token}} placeholders, split into literal text and token slots when the config
+ * is compiled. Rendering appends the slots' values into a per-thread builder, so the only allocation is the
+ * finished string. Placeholders without a value, or that are not tokens at all, render as written.
+ */
+public final class NeonMessageTemplate {
+    private static final ThreadLocal<StringBuilder> BUILDER = ThreadLocal.withInitial(() -> new StringBuilder(128));
+
+    private final String[] literals;
+    private final Token[] tokens;
+    private final String prefixedHead;
+
+    private NeonMessageTemplate(String[] literals, Token[] tokens, String prefix) {
+        this.literals = literals;
+        this.tokens = tokens;
+        this.prefixedHead = prefix == null || prefix.isBlank() ? literals[0] : prefix + " " + literals[0];
+    }
+
+    /**
+     * Parses {@code line}. The chat prefix is folded into the first literal so prefixed rendering costs
+     * nothing extra.
+     */
+    public static NeonMessageTemplate compile(String line, String prefix) {
+        String source = line != null ? line : "";
+        List<String> literals = new ArrayList<>();
+        List<Token> tokens = new ArrayList<>();
+        StringBuilder literal = new StringBuilder();
+        int index = 0;
+        while (index < source.length()) {
+            int open = source.indexOf('{', index);
+            int close = open >= 0 ? source.indexOf('}', open + 1) : -1;
+            if (close < 0) {
+                literal.append(source, index, source.length());
+                break;
+            }
+            Token token = Token.fromKey(source.substring(open + 1, close));
+            if (token == null) {
+                literal.append(source, index, open + 1);
+                index = open + 1;
+                continue;
+            }
+            literal.append(source, index, open);
+            literals.add(literal.toString());
+            literal.setLength(0);
+            tokens.add(token);
+            index = close + 1;
+        }
+        literals.add(literal.toString());
+        return new NeonMessageTemplate(literals.toArray(new String[0]), tokens.toArray(new Token[0]), prefix);
+    }
+
+    public static List<NeonMessageTemplate> compileAll(List<String> lines, String prefix) {
+        List<NeonMessageTemplate> compiled = new ArrayList<>(lines.size());
+        for (String line : lines) {
+            compiled.add(compile(line, prefix));
+        }
+        return List.copyOf(compiled);
+    }
+
+    public String render(Tokens values, boolean prefixed) {
+        StringBuilder out = BUILDER.get();
+        out.setLength(0);
+        appendTo(out, values, prefixed);
+        return out.toString();
+    }
+
+    /**
+     * Renders each template without the prefix, one per line.
+     */
+    public static String renderLines(List<NeonMessageTemplate> templates, Tokens values) {
+        StringBuilder out = BUILDER.get();
+        out.setLength(0);
+        for (int i = 0; i < templates.size(); i++) {
+            if (i > 0) {
+                out.append('\n');
+            }
+            templates.get(i).appendTo(out, values, false);
+        }
+        return out.toString();
+    }
+
+    private void appendTo(StringBuilder out, Tokens values, boolean prefixed) {
+        out.append(prefixed ? prefixedHead : literals[0]);
+        for (int i = 0; i < tokens.length; i++) {
+            values.append(out, tokens[i]);
+            out.append(literals[i + 1]);
+        }
+    }
+
+    public enum Token {
+        CODE("code"),
+        SECONDS("seconds"),
+        TIER("tier"),
+        RISK("risk"),
+        STAGE("stage"),
+        STAGES("stages"),
+        CRED("cred"),
+        COOLDOWN("cooldown"),
+        STREAK("streak");
+
+        private final String key;
+
+        Token(String key) {
+            this.key = key;
+        }
+
+        static Token fromKey(String key) {
+            for (Token token : values()) {
+                if (token.key.equals(key)) {
+                    return token;
+                }
+            }
+            return null;
+        }
+    }
+
+    /**
+     * Values for one render. Only the tokens that were set are substituted.
+     */
+    public static final class Tokens {
+        private int set;
+        private String code;
+        private String tier;
+        private String risk;
+        private long seconds;
+        private long stage;
+        private long stages;
+        private long cred;
+        private long cooldown;
+        private long streak;
+
+        public Tokens code(String value) {
+            code = value;
+            return mark(Token.CODE);
+        }
+
+        public Tokens seconds(long value) {
+            seconds = value;
+            return mark(Token.SECONDS);
+        }
+
+        public Tokens tier(String value) {
+            tier = value;
+            return mark(Token.TIER);
+        }
+
+        public Tokens risk(String value) {
+            risk = value;
+            return mark(Token.RISK);
+        }
+
+        public Tokens stage(long value, long of) {
+            stage = value;
+            stages = of;
+            return mark(Token.STAGE).mark(Token.STAGES);
+        }
+
+        public Tokens cred(long value) {
+            cred = value;
+            return mark(Token.CRED);
+        }
+
+        public Tokens cooldown(long value) {
+            cooldown = value;
+            return mark(Token.COOLDOWN);
+        }
+
+        public Tokens streak(long value) {
+            streak = value;
+            return mark(Token.STREAK);
+        }
+
+        private Tokens mark(Token token) {
+            set |= 1 << token.ordinal();
+            return this;
+        }
+
+        private void append(StringBuilder out, Token token) {
+            if ((set & (1 << token.ordinal())) == 0) {
+                out.append('{').append(token.key).append('}');
+                return;
+            }
+            switch (token) {
+                case CODE -> out.append(code);
+                case SECONDS -> out.append(seconds);
+                case TIER -> out.append(tier);
+                case RISK -> out.append(risk);
+                case STAGE -> out.append(stage);
+                case STAGES -> out.append(stages);
+                case CRED -> out.append(cred);
+                case COOLDOWN -> out.append(cooldown);
+                case STREAK -> out.append(streak);
+            }
+        }
+    }
+}
@@ -0,0 +1,69 @@
+package com.alexleo.neonecho;
+
+import java.util.Locale;
+
+/**
+ * The kinds of daily objective. Each listens to one game {@link Signal}, and its progress is the runner's tally
+ * for that signal today, so a signal only touches the objectives subscribed to it and reading progress is a
+ * field read.
+ */
+public enum NeonObjectiveType {
+    CHAT(Signal.CHAT, 1, "Send {target} chat messages"),
+    NETRUN(Signal.NETRUN_WIN, 1, "Complete {target} netrun"),
+    ONLINE(Signal.ONLINE_SECONDS, 60, "Stay online for {target} minutes"),
+    DROP(Signal.DROP_CLAIM, 1, "Claim {target} signal drops"),
+    STREAK(Signal.NETRUN_STREAK, 1, "Reach a netrun streak of {target}");
+
+    private final Signal signal;
+    private final int unit;
+    private final String defaultLabel;
+
+    NeonObjectiveType(Signal signal, int unit, String defaultLabel) {
+        this.signal = signal;
+        this.unit = unit;
+        this.defaultLabel = defaultLabel;
+    }
+
+    /**
+     * The type named in the config, or {@code null} if the name is unknown.
+     */
+    public static NeonObjectiveType of(String name) {
+        if (name == null) {
+            return null;
+        }
+        return switch (name.trim().toLowerCase(Locale.ROOT)) {
+            case "chat" -> CHAT;
+            case "netrun" -> NETRUN;
+            case "online" -> ONLINE;
+            case "drop" -> DROP;
+            case "streak" -> STREAK;
+            default -> null;
+        };
+    }
+
+    public Signal signal() {
+        return signal;
+    }
+
+    public String defaultLabel() {
+        return defaultLabel;
+    }
+
+    /**
+     * Progress in the units targets are written in: minutes for {@link #ONLINE}, counts otherwise.
+     */
+    public int progress(NeonPlayerRecord record) {
+        return record.dailyTally(signal) / unit;
+    }
+
+    /**
+     * Things a runner does that daily objectives count. Streak is the best netrun streak reached today.
+     */
+    public enum Signal {
+        CHAT,
+        NETRUN_WIN,
+        ONLINE_SECONDS,
+        DROP_CLAIM,
+        NETRUN_STREAK
+    }
+}
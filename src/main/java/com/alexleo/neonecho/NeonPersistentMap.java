@@ -0,0 +1,463 @@
+package com.alexleo.neonecho;
+
+import java.util.AbstractMap;
+import java.util.AbstractSet;
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.Objects;
+import java.util.Set;
+
+/**
+ * Immutable hash array mapped trie. {@link #plus} and {@link #minus} copy only the path from the root to the
+ * changed slot, so older versions stay valid and share everything else; holding a reference to a map is a
+ * consistent snapshot. The {@link Map} mutators are unsupported.
+ */
+public final class NeonPersistentMap<K, V> extends AbstractMap<K, V> {
+    private static final int BITS = 5;
+    private static final int MASK = (1 << BITS) - 1;
+    private static final NeonPersistentMap<?, ?> EMPTY = new NeonPersistentMap<>(null, 0);
+
+    private final Object root;
+    private final int size;
+
+    private NeonPersistentMap(Object root, int size) {
+        this.root = root;
+        this.size = size;
+    }
+
+    @SuppressWarnings("unchecked")
+    public static <K, V> NeonPersistentMap<K, V> empty() {
+        return (NeonPersistentMap<K, V>) EMPTY;
+    }
+
+    @SuppressWarnings("unchecked")
+    public static <K, V> NeonPersistentMap<K, V> copyOf(Map<? extends K, ? extends V> source) {
+        if (source instanceof NeonPersistentMap<?, ?> persistent) {
+            return (NeonPersistentMap<K, V>) persistent;
+        }
+        NeonPersistentMap<K, V> result = empty();
+        if (source == null) {
+            return result;
+        }
+        for (Map.Entry<? extends K, ? extends V> entry : source.entrySet()) {
+            if (entry.getKey() != null && entry.getValue() != null) {
+                result = result.plus(entry.getKey(), entry.getValue());
+            }
+        }
+        return result;
+    }
+
+    @Override
+    public int size() {
+        return size;
+    }
+
+    @Override
+    public boolean containsKey(Object key) {
+        return find(key) != null;
+    }
+
+    @Override
+    public V get(Object key) {
+        Leaf<K, V> leaf = find(key);
+        return leaf != null ? leaf.value : null;
+    }
+
+    @Override
+    public V getOrDefault(Object key, V defaultValue) {
+        Leaf<K, V> leaf = find(key);
+        return leaf != null ? leaf.value : defaultValue;
+    }
+
+    public NeonPersistentMap<K, V> plus(K key, V value) {
+        Objects.requireNonNull(key, "key");
+        Objects.requireNonNull(value, "value");
+        int hash = hash(key);
+        boolean[] added = {false};
+        Object updated = root == null ? new Leaf<>(hash, key, value) : put(root, 0, new Leaf<>(hash, key, value), added);
+        if (root == null) {
+            added[0] = true;
+        }
+        if (updated == root) {
+            return this;
+        }
+        return new NeonPersistentMap<>(updated, added[0] ? size + 1 : size);
+    }
+
+    /**
+     * Adds every entry in {@code entries} in one pass. Entries are grouped by the branches they pass through, so
+     * each branch is copied once for the batch rather than once per entry.
+     */
+    public NeonPersistentMap<K, V> plusAll(Map<? extends K, ? extends V> entries) {
+        if (entries.isEmpty()) {
+            return this;
+        }
+        Leaf<?, ?>[] leaves = new Leaf<?, ?>[entries.size()];
+        int count = 0;
+        for (Map.Entry<? extends K, ? extends V> entry : entries.entrySet()) {
+            K key = Objects.requireNonNull(entry.getKey(), "key");
+            leaves[count++] = new Leaf<>(hash(key), key, Objects.requireNonNull(entry.getValue(), "value"));
+        }
+        // Ordering by the bit-reversed hash keeps leaves that share a fragment at every depth next to each other.
+        Arrays.sort(leaves, 0, count, (a, b) -> Integer.compareUnsigned(Integer.reverse(a.hash), Integer.reverse(b.hash)));
+        int[] added = {0};
+        Object updated = putAll(root, 0, leaves, 0, count, added);
+        if (updated == root) {
+            return this;
+        }
+        return new NeonPersistentMap<>(updated, size + added[0]);
+    }
+
+    public NeonPersistentMap<K, V> minus(Object key) {
+        if (key == null || root == null) {
+            return this;
+        }
+        Object updated = remove(root, 0, hash(key), key);
+        if (updated == root) {
+            return this;
+        }
+        return updated == null ? empty() : new NeonPersistentMap<>(updated, size - 1);
+    }
+
+    @Override
+    public Set<Map.Entry<K, V>> entrySet() {
+        return new AbstractSet<>() {
+            @Override
+            public Iterator<Map.Entry<K, V>> iterator() {
+                return new EntryIterator<>(root);
+            }
+
+            @Override
+            public int size() {
+                return size;
+            }
+        };
+    }
+
+    @SuppressWarnings("unchecked")
+    private Leaf<K, V> find(Object key) {
+        if (key == null) {
+            return null;
+        }
+        int hash = hash(key);
+        Object node = root;
+        int shift = 0;
+        while (node != null) {
+            if (node instanceof Leaf<?, ?> leaf) {
+                return leaf.hash == hash && leaf.key.equals(key) ? (Leaf<K, V>) leaf : null;
+            }
+            if (node instanceof Collision collision) {
+                if (collision.hash != hash) {
+                    return null;
+                }
+                for (Object candidate : collision.leaves) {
+                    Leaf<K, V> leaf = (Leaf<K, V>) candidate;
+                    if (leaf.key.equals(key)) {
+                        return leaf;
+                    }
+                }
+                return null;
+            }
+            Branch branch = (Branch) node;
+            int bit = 1 << ((hash >>> shift) & MASK);
+            if ((branch.bitmap & bit) == 0) {
+                return null;
+            }
+            node = branch.slots[Integer.bitCount(branch.bitmap & (bit - 1))];
+            shift += BITS;
+        }
+        return null;
+    }
+
+    private static Object put(Object node, int shift, Leaf<?, ?> leaf, boolean[] added) {
+        if (node instanceof Leaf<?, ?> existing) {
+            if (existing.hash == leaf.hash && existing.key.equals(leaf.key)) {
+                return existing.value == leaf.value ? existing : leaf;
+            }
+            added[0] = true;
+            return merge(existing, existing.hash, leaf, leaf.hash, shift);
+        }
+        if (node instanceof Collision collision) {
+            if (collision.hash != leaf.hash) {
+                added[0] = true;
+                return merge(collision, collision.hash, leaf, leaf.hash, shift);
+            }
+            Object[] leaves = collision.leaves;
+            for (int i = 0; i < leaves.length; i++) {
+                Leaf<?, ?> candidate = (Leaf<?, ?>) leaves[i];
+                if (candidate.key.equals(leaf.key)) {
+                    if (candidate.value == leaf.value) {
+                        return collision;
+                    }
+                    Object[] copy = leaves.clone();
+                    copy[i] = leaf;
+                    return new Collision(collision.hash, copy);
+                }
+            }
+            added[0] = true;
+            Object[] grown = new Object[leaves.length + 1];
+            System.arraycopy(leaves, 0, grown, 0, leaves.length);
+            grown[leaves.length] = leaf;
+            return new Collision(collision.hash, grown);
+        }
+        Branch branch = (Branch) node;
+        int bit = 1 << ((leaf.hash >>> shift) & MASK);
+        int index = Integer.bitCount(branch.bitmap & (bit - 1));
+        if ((branch.bitmap & bit) == 0) {
+            added[0] = true;
+            Object[] slots = new Object[branch.slots.length + 1];
+            System.arraycopy(branch.slots, 0, slots, 0, index);
+            slots[index] = leaf;
+            System.arraycopy(branch.slots, index, slots, index + 1, branch.slots.length - index);
+            return new Branch(branch.bitmap | bit, slots);
+        }
+        Object child = branch.slots[index];
+        Object updated = put(child, shift + BITS, leaf, added);
+        if (updated == child) {
+            return branch;
+        }
+        Object[] slots = branch.slots.clone();
+        slots[index] = updated;
+        return new Branch(branch.bitmap, slots);
+    }
+
+    /**
+     * Puts {@code leaves[from..to)}, which all share this node's path and are in bit-reversed hash order.
+     */
+    private static Object putAll(Object node, int shift, Leaf<?, ?>[] leaves, int from, int to, int[] added) {
+        boolean[] grew = new boolean[1];
+        while (from < to && !(node instanceof Branch)) {
+            if (node == null) {
+                node = leaves[from];
+                added[0]++;
+            }
+            else {
+                grew[0] = false;
+                node = put(node, shift, leaves[from], grew);
+                if (grew[0]) {
+                    added[0]++;
+                }
+            }
+            from++;
+        }
+        if (from == to) {
+            return node;
+        }
+        Branch branch = (Branch) node;
+        Object[] expanded = new Object[1 << BITS];
+        int slot = 0;
+        for (int bits = branch.bitmap; bits != 0; bits &= bits - 1) {
+            expanded[Integer.numberOfTrailingZeros(bits)] = branch.slots[slot++];
+        }
+        boolean changed = false;
+        for (int start = from; start < to; ) {
+            int fragment = (leaves[start].hash >>> shift) & MASK;
+            int end = start + 1;
+            while (end < to && ((leaves[end].hash >>> shift) & MASK) == fragment) {
+                end++;
+            }
+            Object child = expanded[fragment];
+            Object updated = putAll(child, shift + BITS, leaves, start, end, added);
+            if (updated != child) {
+                expanded[fragment] = updated;
+                changed = true;
+            }
+            start = end;
+        }
+        if (!changed) {
+            return branch;
+        }
+        int bitmap = 0;
+        for (int i = 0; i < expanded.length; i++) {
+            if (expanded[i] != null) {
+                bitmap |= 1 << i;
+            }
+        }
+        Object[] slots = new Object[Integer.bitCount(bitmap)];
+        slot = 0;
+        for (Object child : expanded) {
+            if (child != null) {
+                slots[slot++] = child;
+            }
+        }
+        return new Branch(bitmap, slots);
+    }
+
+    private static Object merge(Object first, int firstHash, Object second, int secondHash, int shift) {
+        if (firstHash == secondHash) {
+            return new Collision(firstHash, new Object[]{first, second});
+        }
+        int firstFragment = (firstHash >>> shift) & MASK;
+        int secondFragment = (secondHash >>> shift) & MASK;
+        if (firstFragment == secondFragment) {
+            return new Branch(1 << firstFragment, new Object[]{merge(first, firstHash, second, secondHash, shift + BITS)});
+        }
+        int bitmap = (1 << firstFragment) | (1 << secondFragment);
+        return firstFragment < secondFragment
+                ? new Branch(bitmap, new Object[]{first, second})
+                : new Branch(bitmap, new Object[]{second, first});
+    }
+
+    private static Object remove(Object node, int shift, int hash, Object key) {
+        if (node instanceof Leaf<?, ?> leaf) {
+            return leaf.hash == hash && leaf.key.equals(key) ? null : leaf;
+        }
+        if (node instanceof Collision collision) {
+            if (collision.hash != hash) {
+                return collision;
+            }
+            Object[] leaves = collision.leaves;
+            for (int i = 0; i < leaves.length; i++) {
+                if (((Leaf<?, ?>) leaves[i]).key.equals(key)) {
+                    if (leaves.length == 2) {
+                        return leaves[1 - i];
+                    }
+                    Object[] shrunk = new Object[leaves.length - 1];
+                    System.arraycopy(leaves, 0, shrunk, 0, i);
+                    System.arraycopy(leaves, i + 1, shrunk, i, leaves.length - i - 1);
+                    return new Collision(hash, shrunk);
+                }
+            }
+            return collision;
+        }
+        Branch branch = (Branch) node;
+        int bit = 1 << ((hash >>> shift) & MASK);
+        if ((branch.bitmap & bit) == 0) {
+            return branch;
+        }
+        int index = Integer.bitCount(branch.bitmap & (bit - 1));
+        Object child = branch.slots[index];
+        Object updated = remove(child, shift + BITS, hash, key);
+        if (updated == child) {
+            return branch;
+        }
+        if (updated == null) {
+            if (branch.slots.length == 1) {
+                return null;
+            }
+            Object[] slots = new Object[branch.slots.length - 1];
+            System.arraycopy(branch.slots, 0, slots, 0, index);
+            System.arraycopy(branch.slots, index + 1, slots, index, branch.slots.length - index - 1);
+            if (slots.length == 1 && !(slots[0] instanceof Branch)) {
+                return slots[0];
+            }
+            return new Branch(branch.bitmap & ~bit, slots);
+        }
+        if (branch.slots.length == 1 && !(updated instanceof Branch)) {
+            return updated;
+        }
+        Object[] slots = branch.slots.clone();
+        slots[index] = updated;
+        return new Branch(branch.bitmap, slots);
+    }
+
+    private static int hash(Object key) {
+        int h = key.hashCode();
+        return h ^ (h >>> 16);
+    }
+
+    private static final class Leaf<K, V> implements Map.Entry<K, V> {
+        private final int hash;
+        private final K key;
+        private final V value;
+
+        private Leaf(int hash, K key, V value) {
+            this.hash = hash;
+            this.key = key;
+            this.value = value;
+        }
+
+        @Override
+        public K getKey() {
+            return key;
+        }
+
+        @Override
+        public V getValue() {
+            return value;
+        }
+
+        @Override
+        public V setValue(V value) {
+            throw new UnsupportedOperationException();
+        }
+
+        @Override
+        public boolean equals(Object other) {
+            return other instanceof Map.Entry<?, ?> entry && key.equals(entry.getKey()) && value.equals(entry.getValue());
+        }
+
+        @Override
+        public int hashCode() {
+            return key.hashCode() ^ value.hashCode();
+        }
+    }
+
+    private record Branch(int bitmap, Object[] slots) {
+    }
+
+    private record Collision(int hash, Object[] leaves) {
+    }
+
+    private static final class EntryIterator<K, V> implements Iterator<Map.Entry<K, V>> {
+        private final Object[][] stack = new Object[9][];
+        private final int[] positions = new int[9];
+        private int depth = -1;
+        private Leaf<K, V> next;
+
+        private EntryIterator(Object root) {
+            if (root instanceof Leaf<?, ?>) {
+                push(new Object[]{root});
+            }
+            else if (root != null) {
+                push(children(root));
+            }
+            advance();
+        }
+
+        @Override
+        public boolean hasNext() {
+            return next != null;
+        }
+
+        @Override
+        public Map.Entry<K, V> next() {
+            if (next == null) {
+                throw new NoSuchElementException();
+            }
+            Leaf<K, V> current = next;
+            advance();
+            return current;
+        }
+
+        @SuppressWarnings("unchecked")
+        private void advance() {
+            next = null;
+            while (depth >= 0) {
+                Object[] slots = stack[depth];
+                if (positions[depth] >= slots.length) {
+                    depth -= 1;
+                    continue;
+                }
+                Object slot = slots[positions[depth]++];
+                if (slot instanceof Leaf<?, ?> leaf) {
+                    next = (Leaf<K, V>) leaf;
+                    return;
+                }
+                push(children(slot));
+            }
+        }
+
+        private void push(Object[] slots) {
+            depth += 1;
+            stack[depth] = slots;
+            positions[depth] = 0;
+        }
+
+        private static Object[] children(Object node) {
+            return node instanceof Branch branch ? branch.slots() : ((Collision) node).leaves();
+        }
+    }
+}
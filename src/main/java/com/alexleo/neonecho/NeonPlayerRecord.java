@@ -0,0 +1,180 @@
+package com.alexleo.neonecho;
+
+/**
+ * Everything NeonEcho keeps for one runner. Records are immutable; every change produces a new record that is
+ * swapped into the player map in one write. Loadout and event values are shared between versions and must be
+ * copied before they are changed. The daily contract itself is not kept: {@code dailyDay} says which day the
+ * daily tallies and the claimed bit belong to, and the objectives are derived from the config. The cred balance
+ * is the exception: every version of a runner's record shares one {@link NeonCredCell}, which is updated in
+ * place without a lock.
+ */
+public record NeonPlayerRecord(
+        String name,
+        NeonCredCell credCell,
+        int netrunWins,
+        int netrunFails,
+        int netrunStreak,
+        int netrunBestStreak,
+        int dailyChatCount,
+        int dailyNetrunWins,
+        int dailyOnlineSeconds,
+        int dailyDropClaims,
+        int dailyBestStreak,
+        int dailyDay,
+        boolean dailyClaimed,
+        NeonPerkLoadout perkLoadout,
+        NeonEventState event
+) {
+    public static NeonPlayerRecord empty() {
+        return new NeonPlayerRecord(null, new NeonCredCell(0), 0, 0, 0, 0, 0, 0, 0, 0, 0, 0, false, null, null);
+    }
+
+    public int cred() {
+        return credCell.get();
+    }
+
+    public NeonPlayerRecord withName(String name) {
+        return new NeonPlayerRecord(name, credCell, netrunWins, netrunFails, netrunStreak, netrunBestStreak,
+                dailyChatCount, dailyNetrunWins, dailyOnlineSeconds, dailyDropClaims, dailyBestStreak,
+                dailyDay, dailyClaimed, perkLoadout, event);
+    }
+
+    public NeonPlayerRecord withNetrun(int wins, int fails, int streak, int bestStreak) {
+        return new NeonPlayerRecord(name, credCell, wins, fails, streak, bestStreak,
+                dailyChatCount, dailyNetrunWins, dailyOnlineSeconds, dailyDropClaims, dailyBestStreak,
+                dailyDay, dailyClaimed, perkLoadout, event);
+    }
+
+    public NeonPlayerRecord withNetrunWin() {
+        int streak = netrunStreak + 1;
+        return new NeonPlayerRecord(name, credCell, netrunWins + 1, netrunFails, streak, Math.max(netrunBestStreak, streak),
+                dailyChatCount, dailyNetrunWins + 1, dailyOnlineSeconds, dailyDropClaims,
+                Math.max(dailyBestStreak, streak), dailyDay, dailyClaimed, perkLoadout, event);
+    }
+
+    public NeonPlayerRecord withNetrunFail() {
+        return new NeonPlayerRecord(name, credCell, netrunWins, netrunFails + 1, 0, netrunBestStreak,
+                dailyChatCount, dailyNetrunWins, dailyOnlineSeconds, dailyDropClaims, dailyBestStreak,
+                dailyDay, dailyClaimed, perkLoadout, event);
+    }
+
+    public NeonPlayerRecord withDaily(int chatCount, int netrunWins, int onlineSeconds) {
+        return new NeonPlayerRecord(name, credCell, this.netrunWins, netrunFails, netrunStreak, netrunBestStreak,
+                chatCount, netrunWins, onlineSeconds, dailyDropClaims, dailyBestStreak,
+                dailyDay, dailyClaimed, perkLoadout, event);
+    }
+
+    public NeonPlayerRecord withDailyDropClaim() {
+        return new NeonPlayerRecord(name, credCell, netrunWins, netrunFails, netrunStreak, netrunBestStreak,
+                dailyChatCount, dailyNetrunWins, dailyOnlineSeconds, dailyDropClaims + 1, dailyBestStreak,
+                dailyDay, dailyClaimed, perkLoadout, event);
+    }
+
+    public NeonPlayerRecord withDailyBestStreak(int streak) {
+        return new NeonPlayerRecord(name, credCell, netrunWins, netrunFails, netrunStreak, netrunBestStreak,
+                dailyChatCount, dailyNetrunWins, dailyOnlineSeconds, dailyDropClaims, streak,
+                dailyDay, dailyClaimed, perkLoadout, event);
+    }
+
+    /**
+     * Today's tally for a daily objective signal.
+     */
+    public int dailyTally(NeonObjectiveType.Signal signal) {
+        return switch (signal) {
+            case CHAT -> dailyChatCount;
+            case NETRUN_WIN -> dailyNetrunWins;
+            case ONLINE_SECONDS -> dailyOnlineSeconds;
+            case DROP_CLAIM -> dailyDropClaims;
+            case NETRUN_STREAK -> dailyBestStreak;
+        };
+    }
+
+    /**
+     * Starts a new day: zeroes the daily counters and the claimed bit.
+     */
+    public NeonPlayerRecord withNewDay(int epochDay) {
+        return new NeonPlayerRecord(name, credCell, netrunWins, netrunFails, netrunStreak, netrunBestStreak,
+                0, 0, 0, 0, 0, epochDay, false, perkLoadout, event);
+    }
+
+    public NeonPlayerRecord withDailyClaimed() {
+        return new NeonPlayerRecord(name, credCell, netrunWins, netrunFails, netrunStreak, netrunBestStreak,
+                dailyChatCount, dailyNetrunWins, dailyOnlineSeconds, dailyDropClaims, dailyBestStreak,
+                dailyDay, true, perkLoadout, event);
+    }
+
+    public NeonPlayerRecord withPerkLoadout(NeonPerkLoadout loadout) {
+        return new NeonPlayerRecord(name, credCell, netrunWins, netrunFails, netrunStreak, netrunBestStreak,
+                dailyChatCount, dailyNetrunWins, dailyOnlineSeconds, dailyDropClaims, dailyBestStreak,
+                dailyDay, dailyClaimed, loadout, event);
+    }
+
+    public NeonPlayerRecord withEvent(NeonEventState event) {
+        return new NeonPlayerRecord(name, credCell, netrunWins, netrunFails, netrunStreak, netrunBestStreak,
+                dailyChatCount, dailyNetrunWins, dailyOnlineSeconds, dailyDropClaims, dailyBestStreak,
+                dailyDay, dailyClaimed, perkLoadout, event);
+    }
+
+    public static NeonPlayerRecord fromData(NeonEchoData data, String key) {
+        int dailyDay = data.dailyDay.getOrDefault(key, 0);
+        boolean dailyClaimed = data.dailyClaimed.getOrDefault(key, 0) != 0;
+        NeonDailyContract saved = data.dailyContracts.get(key);
+        if (saved != null && !data.dailyDay.containsKey(key) && saved.epochDay() != Integer.MIN_VALUE) {
+            dailyDay = saved.epochDay();
+            dailyClaimed = Boolean.TRUE.equals(saved.claimed);
+        }
+        return new NeonPlayerRecord(
+                data.names.get(key),
+                new NeonCredCell(data.cred.getOrDefault(key, 0), data.credSequence.getOrDefault(key, 0L)),
+                data.netrunWins.getOrDefault(key, 0),
+                data.netrunFails.getOrDefault(key, 0),
+                data.netrunStreak.getOrDefault(key, 0),
+                data.netrunBestStreak.getOrDefault(key, 0),
+                data.dailyChatCount.getOrDefault(key, 0),
+                data.dailyNetrunWins.getOrDefault(key, 0),
+                data.dailyOnlineSeconds.getOrDefault(key, 0),
+                data.dailyDropClaims.getOrDefault(key, 0),
+                data.dailyBestStreak.getOrDefault(key, 0),
+                dailyDay,
+                dailyClaimed,
+                data.perkLoadouts.get(key),
+                data.eventStates.get(key)
+        );
+    }
+
+    /**
+     * Writes this record into the per-field maps used on disk. Zero counters and empty values are left out,
+     * which reads back the same. Returns the sequence of the cred balance that was written.
+     */
+    public long writeTo(NeonEchoData data, String key) {
+        NeonCredCell.Balance balance = credCell.balance();
+        putIfSet(data, NeonEchoData.Field.NAMES, key, name);
+        putIfSet(data, NeonEchoData.Field.CRED, key, balance.cred());
+        putIfSet(data, NeonEchoData.Field.CRED_SEQUENCE, key, balance.sequence());
+        putIfSet(data, NeonEchoData.Field.NETRUN_WINS, key, netrunWins);
+        putIfSet(data, NeonEchoData.Field.NETRUN_FAILS, key, netrunFails);
+        putIfSet(data, NeonEchoData.Field.NETRUN_STREAK, key, netrunStreak);
+        putIfSet(data, NeonEchoData.Field.NETRUN_BEST_STREAK, key, netrunBestStreak);
+        putIfSet(data, NeonEchoData.Field.DAILY_CHAT_COUNT, key, dailyChatCount);
+        putIfSet(data, NeonEchoData.Field.DAILY_NETRUN_WINS, key, dailyNetrunWins);
+        putIfSet(data, NeonEchoData.Field.DAILY_ONLINE_SECONDS, key, dailyOnlineSeconds);
+        putIfSet(data, NeonEchoData.Field.DAILY_DROP_CLAIMS, key, dailyDropClaims);
+        putIfSet(data, NeonEchoData.Field.DAILY_BEST_STREAK, key, dailyBestStreak);
+        putIfSet(data, NeonEchoData.Field.DAILY_DAY, key, dailyDay);
+        putIfSet(data, NeonEchoData.Field.DAILY_CLAIMED, key, dailyClaimed ? 1 : 0);
+        putIfSet(data, NeonEchoData.Field.DAILY_CONTRACTS, key, null);
+        putIfSet(data, NeonEchoData.Field.PERK_LOADOUTS, key, perkLoadout);
+        putIfSet(data, NeonEchoData.Field.EVENT_STATES, key, event);
+        return balance.sequence();
+    }
+
+    private static void putIfSet(NeonEchoData data, NeonEchoData.Field field, String key, Object value) {
+        if (value == null || (value instanceof Integer number && number == 0)
+                || (value instanceof Long number && number == 0L)) {
+            data.remove(field, key);
+        }
+        else {
+            data.put(field, key, value);
+        }
+    }
+}
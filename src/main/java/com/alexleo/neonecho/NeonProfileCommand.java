@@ -56,10 +56,8 @@ public class NeonProfileCommand extends CommandBase {
             ctx.sendMessage(Message.raw(state.formatMessage("Active perks: none.")));
         }
         if (event != null) {
-            long secondsLeft = event.expiresAt != null
-                    ? Math.max(0L, (event.expiresAt - System.currentTimeMillis()) / 1000L)
-                    : 0L;
-            ctx.sendMessage(Message.raw(state.formatMessage("Active alert: " + event.name + " (" + secondsLeft + "s).")));
+            long secondsLeft = Math.max(0L, (event.expiresAt - System.currentTimeMillis()) / 1000L);
+            ctx.sendMessage(Message.raw(state.formatMessage("Active alert: " + event.def().name() + " (" + secondsLeft + "s).")));
         }
         if (!daily.enabled()) {
             ctx.sendMessage(Message.raw(state.formatMessage("Daily contracts disabled.")));
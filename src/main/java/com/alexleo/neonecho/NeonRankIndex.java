@@ -0,0 +1,214 @@
+package com.alexleo.neonecho;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.SplittableRandom;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.LongSupplier;
+
+/**
+ * Ranked scores kept in an order-statistic treap: highest score first, ties by key. Writers never wait on the
+ * tree; {@link #update} only records the key's latest score, and readers fold pending scores in, O(log n)
+ * each, before answering. Keys with a score of zero or less are not ranked.
+ */
+public final class NeonRankIndex {
+    private final Map<String, Long> pending = new ConcurrentHashMap<>();
+    private final Map<String, Long> scores = new HashMap<>();
+    private final SplittableRandom random = new SplittableRandom();
+    private Node root;
+
+    /**
+     * Records a key's score. The supplier runs inside the pending map's per-key lock, so when writers race the
+     * last one to run reads the newest value.
+     */
+    public void update(String key, LongSupplier score) {
+        pending.compute(key, (ignored, previous) -> score.getAsLong());
+    }
+
+    public void update(String key, long score) {
+        pending.put(key, score);
+    }
+
+    public synchronized void clear() {
+        pending.clear();
+        scores.clear();
+        root = null;
+    }
+
+    public synchronized List<Ranked> top(int limit) {
+        applyPending();
+        List<Ranked> results = new ArrayList<>(Math.min(Math.max(0, limit), size(root)));
+        Deque<Node> stack = new ArrayDeque<>();
+        Node node = root;
+        while ((node != null || !stack.isEmpty()) && results.size() < limit) {
+            while (node != null) {
+                stack.push(node);
+                node = node.left;
+            }
+            node = stack.pop();
+            results.add(new Ranked(node.key, node.score, results.size() + 1));
+            node = node.right;
+        }
+        return results;
+    }
+
+    /**
+     * 1-based rank of a key, or 0 if it is not ranked.
+     */
+    public synchronized int rank(String key) {
+        applyPending();
+        Long score = scores.get(key);
+        if (score == null) {
+            return 0;
+        }
+        int before = 0;
+        Node node = root;
+        while (node != null) {
+            int order = compare(score, key, node.score, node.key);
+            if (order == 0) {
+                return before + size(node.left) + 1;
+            }
+            if (order < 0) {
+                node = node.left;
+            }
+            else {
+                before += size(node.left) + 1;
+                node = node.right;
+            }
+        }
+        return 0;
+    }
+
+    public synchronized int size() {
+        applyPending();
+        return size(root);
+    }
+
+    private void applyPending() {
+        if (pending.isEmpty()) {
+            return;
+        }
+        for (String key : pending.keySet()) {
+            Long score = pending.remove(key);
+            if (score == null) {
+                continue;
+            }
+            Long previous = score > 0 ? scores.put(key, score) : scores.remove(key);
+            if (previous != null) {
+                if (previous.equals(score)) {
+                    continue;
+                }
+                root = remove(root, previous, key);
+            }
+            if (score > 0) {
+                root = insert(root, new Node(key, score, random.nextInt()));
+            }
+        }
+    }
+
+    private static Node insert(Node node, Node added) {
+        if (node == null) {
+            return added;
+        }
+        if (added.priority > node.priority) {
+            Node[] parts = split(node, added.score, added.key);
+            added.left = parts[0];
+            added.right = parts[1];
+            return added.resize();
+        }
+        if (compare(added.score, added.key, node.score, node.key) < 0) {
+            node.left = insert(node.left, added);
+        }
+        else {
+            node.right = insert(node.right, added);
+        }
+        return node.resize();
+    }
+
+    private static Node remove(Node node, long score, String key) {
+        if (node == null) {
+            return null;
+        }
+        int order = compare(score, key, node.score, node.key);
+        if (order == 0) {
+            return merge(node.left, node.right);
+        }
+        if (order < 0) {
+            node.left = remove(node.left, score, key);
+        }
+        else {
+            node.right = remove(node.right, score, key);
+        }
+        return node.resize();
+    }
+
+    /**
+     * Splits into nodes ordered before (score, key) and the rest.
+     */
+    private static Node[] split(Node node, long score, String key) {
+        if (node == null) {
+            return new Node[2];
+        }
+        if (compare(node.score, node.key, score, key) < 0) {
+            Node[] parts = split(node.right, score, key);
+            node.right = parts[0];
+            parts[0] = node.resize();
+            return parts;
+        }
+        Node[] parts = split(node.left, score, key);
+        node.left = parts[1];
+        parts[1] = node.resize();
+        return parts;
+    }
+
+    private static Node merge(Node left, Node right) {
+        if (left == null) {
+            return right;
+        }
+        if (right == null) {
+            return left;
+        }
+        if (left.priority > right.priority) {
+            left.right = merge(left.right, right);
+            return left.resize();
+        }
+        right.left = merge(left, right.left);
+        return right.resize();
+    }
+
+    private static int compare(long score, String key, long otherScore, String otherKey) {
+        int order = Long.compare(otherScore, score);
+        return order != 0 ? order : key.compareTo(otherKey);
+    }
+
+    private static int size(Node node) {
+        return node != null ? node.size : 0;
+    }
+
+    public record Ranked(String key, long score, int rank) {
+    }
+
+    private static final class Node {
+        private final String key;
+        private final long score;
+        private final int priority;
+        private Node left;
+        private Node right;
+        private int size = 1;
+
+        private Node(String key, long score, int priority) {
+            this.key = key;
+            this.score = score;
+            this.priority = priority;
+        }
+
+        private Node resize() {
+            size = 1 + NeonRankIndex.size(left) + NeonRankIndex.size(right);
+            return this;
+        }
+    }
+}
@@ -0,0 +1,452 @@
+package com.alexleo.neonecho;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.UUID;
+import java.util.zip.CRC32;
+
+/**
+ * Binary form of {@link NeonEchoData}. Layout: magic, version, string dictionary, player table, then one record
+ * per player with a field mask followed by the present fields, and a CRC32 trailer. Player keys are written as two
+ * longs when they parse as UUIDs, counters as zigzag varints, cred sequences as varints, and perk ids, event ids
+ * and objective labels as indexes into the dictionary. Version 1 also carried each event's name, text, type and
+ * payouts; the name and type are kept to bind events saved without an id, and the rest is read past, as events
+ * now take it from the config. Version 2 has no name or type, and version 3 adds them back for id-less events.
+ */
+public final class NeonSnapshotCodec {
+    public static final int VERSION = 3;
+
+    private static final int MAGIC = 0x4E454F4E;
+    private static final int KEY_UUID = 0;
+    private static final int KEY_STRING = 1;
+
+    private NeonSnapshotCodec() {
+    }
+
+    public static byte[] encode(NeonEchoData data) {
+        Set<String> keys = new TreeSet<>(data.playerKeys());
+        Map<String, Integer> dictionary = new HashMap<>();
+        List<String> strings = new ArrayList<>();
+        for (String key : keys) {
+            collectStrings(data, key, dictionary, strings);
+        }
+
+        Out out = new Out();
+        out.int32(MAGIC);
+        out.varint(VERSION);
+        out.varint(strings.size());
+        for (String value : strings) {
+            out.string(value);
+        }
+        out.varint(keys.size());
+        for (String key : keys) {
+            UUID uuid = parseUuid(key);
+            if (uuid != null) {
+                out.varint(KEY_UUID);
+                out.int64(uuid.getMostSignificantBits());
+                out.int64(uuid.getLeastSignificantBits());
+            }
+            else {
+                out.varint(KEY_STRING);
+                out.string(key);
+            }
+        }
+        for (String key : keys) {
+            writeRecord(out, data, key, dictionary);
+        }
+        CRC32 crc = new CRC32();
+        crc.update(out.buffer(), 0, out.size());
+        out.int32((int) crc.getValue());
+        return out.toByteArray();
+    }
+
+    public static NeonEchoData decode(byte[] bytes) throws IOException {
+        if (bytes.length < 8) {
+            throw new IOException("Snapshot too short");
+        }
+        CRC32 crc = new CRC32();
+        crc.update(bytes, 0, bytes.length - 4);
+        ByteBuffer buffer = ByteBuffer.wrap(bytes);
+        if (buffer.getInt(bytes.length - 4) != (int) crc.getValue()) {
+            throw new IOException("Snapshot checksum mismatch");
+        }
+        buffer.limit(bytes.length - 4);
+        try {
+            In in = new In(buffer);
+            if (in.int32() != MAGIC) {
+                throw new IOException("Not a NeonEcho snapshot");
+            }
+            int version = in.varint();
+            if (version < 1 || version > VERSION) {
+                throw new IOException("Unsupported snapshot version " + version);
+            }
+            List<String> strings = new ArrayList<>();
+            int stringCount = in.count();
+            for (int i = 0; i < stringCount; i++) {
+                strings.add(in.string());
+            }
+            int keyCount = in.count();
+            List<String> keys = new ArrayList<>(keyCount);
+            for (int i = 0; i < keyCount; i++) {
+                if (in.varint() == KEY_UUID) {
+                    keys.add(new UUID(in.int64(), in.int64()).toString());
+                }
+                else {
+                    keys.add(in.string());
+                }
+            }
+            NeonEchoData data = new NeonEchoData();
+            for (String key : keys) {
+                readRecord(in, data, key, strings, version);
+            }
+            data.normalize();
+            return data;
+        }
+        catch (BufferUnderflowException | IndexOutOfBoundsException ex) {
+            throw new IOException("Truncated snapshot", ex);
+        }
+    }
+
+    private static void collectStrings(NeonEchoData data, String key, Map<String, Integer> dictionary, List<String> strings) {
+        NeonDailyContract contract = data.dailyContracts.get(key);
+        if (contract != null) {
+            intern(contract.date, dictionary, strings);
+            if (contract.objectives != null) {
+                for (NeonDailyObjective objective : contract.objectives) {
+                    if (objective != null) {
+                        intern(objective.type, dictionary, strings);
+                        intern(objective.label, dictionary, strings);
+                    }
+                }
+            }
+        }
+        NeonPerkLoadout loadout = data.perkLoadouts.get(key);
+        if (loadout != null) {
+            for (String perkId : loadout.owned.keySet()) {
+                intern(perkId, dictionary, strings);
+            }
+            for (String perkId : loadout.active) {
+                intern(perkId, dictionary, strings);
+            }
+        }
+        NeonEventState event = data.eventStates.get(key);
+        if (event != null) {
+            intern(event.id, dictionary, strings);
+            if (event.id == null) {
+                intern(event.name, dictionary, strings);
+                intern(event.type, dictionary, strings);
+            }
+        }
+    }
+
+    private static void intern(String value, Map<String, Integer> dictionary, List<String> strings) {
+        if (value != null && !dictionary.containsKey(value)) {
+            dictionary.put(value, strings.size() + 1);
+            strings.add(value);
+        }
+    }
+
+    private static void writeRecord(Out out, NeonEchoData data, String key, Map<String, Integer> dictionary) {
+        int mask = 0;
+        NeonEchoData.Field[] fields = NeonEchoData.Field.values();
+        for (int i = 0; i < fields.length; i++) {
+            if (fields[i].of(data).containsKey(key)) {
+                mask |= 1 << i;
+            }
+        }
+        out.varint(mask);
+        for (int i = 0; i < fields.length; i++) {
+            if ((mask & (1 << i)) == 0) {
+                continue;
+            }
+            Object value = fields[i].of(data).get(key);
+            switch (fields[i]) {
+                case NAMES -> out.string((String) value);
+                case DAILY_CONTRACTS -> writeContract(out, (NeonDailyContract) value, dictionary);
+                case PERK_LOADOUTS -> writeLoadout(out, (NeonPerkLoadout) value, dictionary);
+                case EVENT_STATES -> writeEvent(out, (NeonEventState) value, dictionary);
+                case CRED_SEQUENCE -> out.varlong((Long) value);
+                default -> out.zigzag((Integer) value);
+            }
+        }
+    }
+
+    private static void readRecord(In in, NeonEchoData data, String key, List<String> strings, int version)
+            throws IOException {
+        int mask = in.varint();
+        NeonEchoData.Field[] fields = NeonEchoData.Field.values();
+        if ((mask >>> fields.length) != 0) {
+            throw new IOException("Unknown field mask " + Integer.toHexString(mask));
+        }
+        for (int i = 0; i < fields.length; i++) {
+            if ((mask & (1 << i)) == 0) {
+                continue;
+            }
+            Object value = switch (fields[i]) {
+                case NAMES -> in.string();
+                case DAILY_CONTRACTS -> readContract(in, strings);
+                case PERK_LOADOUTS -> readLoadout(in, strings);
+                case EVENT_STATES -> version == 1 ? readEventV1(in, strings) : readEvent(in, strings, version);
+                case CRED_SEQUENCE -> in.varlong();
+                default -> in.zigzag();
+            };
+            data.put(fields[i], key, value);
+        }
+    }
+
+    private static void writeContract(Out out, NeonDailyContract contract, Map<String, Integer> dictionary) {
+        out.ref(contract.date, dictionary);
+        out.nullableInt(contract.reward);
+        out.varint(contract.claimed == null ? 0 : contract.claimed ? 2 : 1);
+        if (contract.objectives == null) {
+            out.varint(0);
+            return;
+        }
+        out.varint(contract.objectives.size() + 1);
+        for (NeonDailyObjective objective : contract.objectives) {
+            if (objective == null) {
+                out.varint(0);
+                continue;
+            }
+            out.varint(1);
+            out.ref(objective.type, dictionary);
+            out.nullableInt(objective.target);
+            out.ref(objective.label, dictionary);
+        }
+    }
+
+    private static NeonDailyContract readContract(In in, List<String> strings) throws IOException {
+        NeonDailyContract contract = new NeonDailyContract();
+        contract.date = in.ref(strings);
+        contract.reward = in.nullableInt();
+        int claimed = in.varint();
+        contract.claimed = claimed == 0 ? null : claimed == 2;
+        int count = in.count();
+        if (count == 0) {
+            contract.objectives = null;
+            return contract;
+        }
+        for (int i = 0; i < count - 1; i++) {
+            if (in.varint() == 0) {
+                contract.objectives.add(null);
+                continue;
+            }
+            String type = in.ref(strings);
+            Integer target = in.nullableInt();
+            String label = in.ref(strings);
+            contract.objectives.add(new NeonDailyObjective(type, target, label));
+        }
+        return contract;
+    }
+
+    private static void writeLoadout(Out out, NeonPerkLoadout loadout, Map<String, Integer> dictionary) {
+        out.varint(loadout.owned.size());
+        for (Map.Entry<String, Integer> entry : loadout.owned.entrySet()) {
+            out.ref(entry.getKey(), dictionary);
+            out.zigzag(entry.getValue());
+        }
+        out.varint(loadout.active.size());
+        for (String perkId : loadout.active) {
+            out.ref(perkId, dictionary);
+        }
+    }
+
+    private static NeonPerkLoadout readLoadout(In in, List<String> strings) throws IOException {
+        NeonPerkLoadout loadout = new NeonPerkLoadout();
+        int owned = in.count();
+        for (int i = 0; i < owned; i++) {
+            String perkId = in.ref(strings);
+            int rank = in.zigzag();
+            if (perkId != null) {
+                loadout.owned.put(perkId, rank);
+            }
+        }
+        int active = in.count();
+        for (int i = 0; i < active; i++) {
+            loadout.active.add(in.ref(strings));
+        }
+        return loadout;
+    }
+
+    private static void writeEvent(Out out, NeonEventState event, Map<String, Integer> dictionary) {
+        out.ref(event.id, dictionary);
+        if (event.id == null) {
+            out.ref(event.name, dictionary);
+            out.ref(event.type, dictionary);
+        }
+        out.int64(event.expiresAt);
+        out.zigzag(event.usesRemaining);
+    }
+
+    private static NeonEventState readEvent(In in, List<String> strings, int version) {
+        NeonEventState event = new NeonEventState();
+        event.id = in.ref(strings);
+        if (event.id == null && version >= 3) {
+            event.name = in.ref(strings);
+            event.type = in.ref(strings);
+        }
+        event.expiresAt = in.int64();
+        event.usesRemaining = in.zigzag();
+        return event;
+    }
+
+    private static NeonEventState readEventV1(In in, List<String> strings) {
+        NeonEventState event = new NeonEventState();
+        event.id = in.ref(strings);
+        event.name = in.ref(strings);
+        in.ref(strings);
+        event.type = in.ref(strings);
+        event.expiresAt = in.varint() == 0 ? Long.MAX_VALUE : in.int64();
+        in.nullableInt();
+        in.nullableInt();
+        Integer uses = in.nullableInt();
+        event.usesRemaining = uses != null ? uses : 1;
+        return event;
+    }
+
+    private static UUID parseUuid(String key) {
+        try {
+            UUID uuid = UUID.fromString(key);
+            return uuid.toString().equals(key) ? uuid : null;
+        }
+        catch (IllegalArgumentException ex) {
+            return null;
+        }
+    }
+
+    private static final class Out extends ByteArrayOutputStream {
+        Out() {
+            super(4096);
+        }
+
+        byte[] buffer() {
+            return buf;
+        }
+
+        void varint(int value) {
+            varlong(value & 0xFFFFFFFFL);
+        }
+
+        void varlong(long value) {
+            while ((value & ~0x7FL) != 0) {
+                write((int) ((value & 0x7F) | 0x80));
+                value >>>= 7;
+            }
+            write((int) value);
+        }
+
+        void zigzag(int value) {
+            varint((value << 1) ^ (value >> 31));
+        }
+
+        void nullableInt(Integer value) {
+            if (value == null) {
+                varint(0);
+            }
+            else {
+                varint(1);
+                zigzag(value);
+            }
+        }
+
+        void int32(int value) {
+            write(value >>> 24);
+            write(value >>> 16);
+            write(value >>> 8);
+            write(value);
+        }
+
+        void int64(long value) {
+            int32((int) (value >>> 32));
+            int32((int) value);
+        }
+
+        void string(String value) {
+            byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+            varint(bytes.length);
+            write(bytes, 0, bytes.length);
+        }
+
+        void ref(String value, Map<String, Integer> dictionary) {
+            varint(value == null ? 0 : dictionary.get(value));
+        }
+    }
+
+    private static final class In {
+        private final ByteBuffer buffer;
+
+        In(ByteBuffer buffer) {
+            this.buffer = buffer;
+        }
+
+        int varint() {
+            return (int) varlong();
+        }
+
+        long varlong() {
+            long result = 0;
+            for (int shift = 0; shift < 64; shift += 7) {
+                byte b = buffer.get();
+                result |= (long) (b & 0x7F) << shift;
+                if ((b & 0x80) == 0) {
+                    return result;
+                }
+            }
+            throw new IndexOutOfBoundsException("Malformed varint");
+        }
+
+        int zigzag() {
+            int raw = varint();
+            return (raw >>> 1) ^ -(raw & 1);
+        }
+
+        Integer nullableInt() {
+            return varint() == 0 ? null : zigzag();
+        }
+
+        int int32() {
+            return buffer.getInt();
+        }
+
+        long int64() {
+            return buffer.getLong();
+        }
+
+        /**
+         * A length or element count. Every element takes at least a byte, so a count past the bytes left is
+         * corrupt; checking it here keeps a bad varint from sizing an allocation. One over is let through for
+         * counts stored as size + 1.
+         */
+        int count() throws IOException {
+            int value = varint();
+            if (value < 0 || value > buffer.remaining() + 1) {
+                throw new IOException("Corrupt length " + Integer.toUnsignedString(value));
+            }
+            return value;
+        }
+
+        String string() throws IOException {
+            int length = count();
+            if (length > buffer.remaining()) {
+                throw new IOException("Corrupt length " + length);
+            }
+            byte[] bytes = new byte[length];
+            buffer.get(bytes);
+            return new String(bytes, StandardCharsets.UTF_8);
+        }
+
+        String ref(List<String> strings) {
+            int index = varint();
+            return index == 0 ? null : strings.get(index - 1);
+        }
+    }
+}
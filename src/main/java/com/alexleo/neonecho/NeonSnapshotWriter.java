@@ -0,0 +1,224 @@
+package com.alexleo.neonecho;
+
+import com.hypixel.hytale.logger.HytaleLogger;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+import java.util.logging.Level;
+
+/**
+ * Crash-safe file replacement for snapshots. Each write goes to a temp file, is fsynced according to the policy,
+ * then atomically moved over the target after the previous content is linked as generation {@code .1}, and older
+ * ones renamed to {@code .2} and so on. The policy is applied per batch rather than per file, so a flush is either synced
+ * as a whole or not at all. Snapshot work is serialized on a single "neonecho-snapshot" thread.
+ * <p>
+ * Generations are kept per file, not per snapshot. A file recovered from an older generation holds what that
+ * file held a few writes ago, which can be older than the files around it.
+ */
+public final class NeonSnapshotWriter {
+    public static final String FSYNC_NEVER = "never";
+    public static final String FSYNC_INTERVAL = "interval";
+    public static final String FSYNC_ALWAYS = "always";
+
+    private final HytaleLogger logger;
+    private final String fsyncPolicy;
+    private final long fsyncIntervalMillis;
+    private final int generations;
+    private final ExecutorService executor;
+    private long lastFsyncAt;
+    private volatile boolean syncing;
+
+    public NeonSnapshotWriter(HytaleLogger logger, String fsyncPolicy, long fsyncIntervalMillis, int generations) {
+        this.logger = logger;
+        String policy = fsyncPolicy != null ? fsyncPolicy.trim().toLowerCase(Locale.ROOT) : FSYNC_INTERVAL;
+        this.fsyncPolicy = switch (policy) {
+            case FSYNC_NEVER, FSYNC_ALWAYS -> policy;
+            default -> FSYNC_INTERVAL;
+        };
+        this.fsyncIntervalMillis = Math.max(0L, fsyncIntervalMillis);
+        this.generations = Math.max(1, generations);
+        this.syncing = FSYNC_ALWAYS.equals(this.fsyncPolicy);
+        this.executor = Executors.newSingleThreadExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "neonecho-snapshot");
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    public <T> CompletableFuture<T> submit(Supplier<T> task) {
+        return CompletableFuture.supplyAsync(task, executor);
+    }
+
+    /**
+     * Runs the queued snapshot work and stops the thread.
+     */
+    public void close() {
+        executor.shutdown();
+        try {
+            if (!executor.awaitTermination(30L, TimeUnit.SECONDS)) {
+                logger.at(Level.WARNING).log("NeonEcho snapshot thread did not finish in time.");
+            }
+        }
+        catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    /**
+     * Starts a batch of writes, such as one flush. Decides once whether every write and delete until the next
+     * batch is fsynced, directory entries included; {@code force} syncs whatever the
+     * interval. Returns whether the batch is durable once it completes, which journal compaction waits for.
+     * Under the {@code never} policy every batch counts, since the policy has given up on durability.
+     */
+    public synchronized boolean beginBatch(boolean force) {
+        if (FSYNC_NEVER.equals(fsyncPolicy)) {
+            syncing = false;
+            return true;
+        }
+        if (force) {
+            lastFsyncAt = System.currentTimeMillis();
+            syncing = true;
+        }
+        else {
+            syncing = shouldSync();
+        }
+        return syncing;
+    }
+
+    public boolean write(Path target, byte[] bytes) {
+        Path temp = target.resolveSibling(target.getFileName() + ".tmp");
+        try {
+            Files.createDirectories(target.getParent());
+            boolean sync = syncing;
+            try (FileChannel channel = FileChannel.open(temp, StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+                    StandardOpenOption.TRUNCATE_EXISTING)) {
+                ByteBuffer buffer = ByteBuffer.wrap(bytes);
+                while (buffer.hasRemaining()) {
+                    channel.write(buffer);
+                }
+                if (sync) {
+                    channel.force(true);
+                }
+            }
+            rotate(target);
+            try {
+                Files.move(temp, target, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+            }
+            catch (AtomicMoveNotSupportedException ex) {
+                Files.move(temp, target, StandardCopyOption.REPLACE_EXISTING);
+            }
+            if (sync) {
+                syncDirectory(target.getParent());
+            }
+            return true;
+        }
+        catch (IOException ex) {
+            logger.at(Level.WARNING).log("Failed to write NeonEcho snapshot " + target.getFileName() + ": " + ex.getMessage());
+            try {
+                Files.deleteIfExists(temp);
+            }
+            catch (IOException ignored) {
+            }
+            return false;
+        }
+    }
+
+    /**
+     * The target followed by its kept generations, newest first. Readers try each in turn until one decodes.
+     */
+    public List<Path> candidates(Path target) {
+        List<Path> paths = new ArrayList<>();
+        if (Files.exists(target)) {
+            paths.add(target);
+        }
+        for (int i = 1; i < generations; i++) {
+            Path generation = generationPath(target, i);
+            if (Files.exists(generation)) {
+                paths.add(generation);
+            }
+        }
+        return paths;
+    }
+
+    public boolean delete(Path target) {
+        try {
+            boolean deleted = Files.deleteIfExists(target);
+            for (int i = 1; i < generations; i++) {
+                deleted |= Files.deleteIfExists(generationPath(target, i));
+            }
+            if (deleted && syncing) {
+                syncDirectory(target.getParent());
+            }
+            return true;
+        }
+        catch (IOException ex) {
+            logger.at(Level.WARNING).log("Failed to delete NeonEcho snapshot " + target.getFileName() + ": " + ex.getMessage());
+            return false;
+        }
+    }
+
+    private void rotate(Path target) throws IOException {
+        if (generations <= 1 || !Files.exists(target)) {
+            return;
+        }
+        Files.deleteIfExists(generationPath(target, generations - 1));
+        for (int i = generations - 2; i >= 1; i--) {
+            Path older = generationPath(target, i);
+            if (Files.exists(older)) {
+                Files.move(older, generationPath(target, i + 1), StandardCopyOption.REPLACE_EXISTING);
+            }
+        }
+        // A hard link rather than a copy: the content is already on disk, and the directory sync after the write
+        // covers the new entry. Unlike a rename it leaves the target in place for readers until the move.
+        Path previous = generationPath(target, 1);
+        Files.deleteIfExists(previous);
+        try {
+            Files.createLink(previous, target);
+        }
+        catch (UnsupportedOperationException | IOException ex) {
+            Files.copy(target, previous, StandardCopyOption.REPLACE_EXISTING);
+        }
+    }
+
+    private synchronized boolean shouldSync() {
+        if (FSYNC_ALWAYS.equals(fsyncPolicy)) {
+            return true;
+        }
+        if (FSYNC_NEVER.equals(fsyncPolicy)) {
+            return false;
+        }
+        long now = System.currentTimeMillis();
+        if (now - lastFsyncAt < fsyncIntervalMillis) {
+            return false;
+        }
+        lastFsyncAt = now;
+        return true;
+    }
+
+    private void syncDirectory(Path dir) {
+        try (FileChannel channel = FileChannel.open(dir, StandardOpenOption.READ)) {
+            channel.force(true);
+        }
+        catch (IOException ignored) {
+            // Not every platform allows opening a directory for sync.
+        }
+    }
+
+    private static Path generationPath(Path target, int generation) {
+        return target.resolveSibling(target.getFileName() + "." + generation);
+    }
+}
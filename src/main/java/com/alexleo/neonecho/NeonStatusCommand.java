@@ -11,11 +11,13 @@ import java.time.Duration;
 public class NeonStatusCommand extends CommandBase {
 
     private final NeonEchoState state;
+    private final NeonTickScheduler ticks;
 
-    public NeonStatusCommand(NeonEchoState state) {
+    public NeonStatusCommand(NeonEchoState state, NeonTickScheduler ticks) {
         super("neonstatus", "Shows NeonEcho status.");
         this.setPermissionGroup(GameMode.Adventure); // Allows the command to be used by anyone, not just OP
         this.state = state;
+        this.ticks = ticks;
     }
 
     @Override
@@ -24,6 +26,24 @@ public class NeonStatusCommand extends CommandBase {
         ctx.sendMessage(Message.raw(state.formatMessage("Core v" + state.getVersion() + " online.")));
         ctx.sendMessage(Message.raw(state.formatMessage("Theme " + state.getTheme().getName() + ".")));
         ctx.sendMessage(Message.raw(state.formatMessage("Uptime " + formatDuration(uptime) + ".")));
+        StringBuilder runtime = new StringBuilder("Runtime state:");
+        for (NeonEchoState.TransientStats stats : state.getTransientStats()) {
+            runtime.append(' ').append(stats.name()).append(' ').append(stats.size());
+            if (stats.evicted() > 0) {
+                runtime.append(" (").append(stats.evicted()).append(" evicted)");
+            }
+            runtime.append(',');
+        }
+        runtime.setLength(runtime.length() - 1);
+        ctx.sendMessage(Message.raw(state.formatMessage(runtime + ".")));
+        for (NeonTickScheduler.TaskStats stats : ticks.getStats()) {
+            if (stats.overruns() == 0 && stats.skipped() == 0 && stats.failures() == 0) {
+                continue;
+            }
+            ctx.sendMessage(Message.raw(state.formatMessage("Tick " + stats.name() + ": max " + stats.maxMillis()
+                    + "ms, " + stats.overruns() + " over budget, " + stats.skipped() + " skipped, "
+                    + stats.failures() + " failed.")));
+        }
     }
 
     private static String formatDuration(Duration duration) {
@@ -0,0 +1,162 @@
+package com.alexleo.neonecho;
+
+import com.hypixel.hytale.logger.HytaleLogger;
+
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.logging.Level;
+
+/**
+ * Periodic plugin work, split into lanes that each run on their own thread so a slow save cannot hold up the
+ * game ticks. Every task has a time budget; runs that go over it are counted and logged. A run that starts so
+ * late that its next slot has already passed is skipped instead of executed, so a stall is followed by one run
+ * rather than a burst of catch-up runs.
+ */
+public final class NeonTickScheduler {
+    private static final long OVERRUN_LOG_INTERVAL_MILLIS = 60_000L;
+    private static final long SHUTDOWN_WAIT_SECONDS = 10L;
+
+    private final HytaleLogger logger;
+    private final Map<Lane, ScheduledExecutorService> lanes = new EnumMap<>(Lane.class);
+    private final List<Task> tasks = new CopyOnWriteArrayList<>();
+
+    public NeonTickScheduler(HytaleLogger logger) {
+        this.logger = logger;
+        for (Lane lane : Lane.values()) {
+            lanes.put(lane, Executors.newSingleThreadScheduledExecutor(runnable -> {
+                Thread thread = new Thread(runnable, lane.threadName);
+                thread.setDaemon(true);
+                return thread;
+            }));
+        }
+    }
+
+    /**
+     * Runs {@code action} on {@code lane} every {@code periodMillis}, first after one period.
+     */
+    public ScheduledFuture<?> schedule(String name, Lane lane, long periodMillis, long budgetMillis, Runnable action) {
+        long period = Math.max(1L, periodMillis);
+        Task task = new Task(name, lane, period, Math.max(1L, budgetMillis), action, System.nanoTime() + period * 1_000_000L);
+        tasks.add(task);
+        return lanes.get(lane).scheduleAtFixedRate(task::run, period, period, TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * Stops every lane, letting a run that is under way finish first.
+     */
+    public void shutdown() {
+        for (ScheduledExecutorService lane : lanes.values()) {
+            lane.shutdown();
+        }
+        for (ScheduledExecutorService lane : lanes.values()) {
+            try {
+                lane.awaitTermination(SHUTDOWN_WAIT_SECONDS, TimeUnit.SECONDS);
+            }
+            catch (InterruptedException ex) {
+                Thread.currentThread().interrupt();
+                return;
+            }
+        }
+    }
+
+    public List<TaskStats> getStats() {
+        List<TaskStats> stats = new ArrayList<>(tasks.size());
+        for (Task task : tasks) {
+            stats.add(task.stats());
+        }
+        return stats;
+    }
+
+    public enum Lane {
+        GAME("neonecho-game"),
+        IO("neonecho-io-ticks");
+
+        private final String threadName;
+
+        Lane(String threadName) {
+            this.threadName = threadName;
+        }
+    }
+
+    public record TaskStats(String name, Lane lane, long runs, long skipped, long overruns, long failures,
+                            long lastMillis, long maxMillis, long maxJitterMillis) {
+    }
+
+    private final class Task {
+        private final String name;
+        private final Lane lane;
+        private final long periodNanos;
+        private final long budgetNanos;
+        private final Runnable action;
+        private long due;
+        private long lastOverrunLog;
+        private volatile long runs;
+        private volatile long skipped;
+        private volatile long overruns;
+        private volatile long failures;
+        private volatile long lastNanos;
+        private volatile long maxNanos;
+        private volatile long maxJitterNanos;
+
+        private Task(String name, Lane lane, long periodMillis, long budgetMillis, Runnable action, long firstDue) {
+            this.name = name;
+            this.lane = lane;
+            this.periodNanos = periodMillis * 1_000_000L;
+            this.budgetNanos = budgetMillis * 1_000_000L;
+            this.action = action;
+            this.due = firstDue;
+        }
+
+        /**
+         * The executor calls this once per slot, late ones back to back. Each call advances {@code due} by one
+         * period, so a call whose following slot is also behind us is one of a catch-up burst.
+         */
+        private void run() {
+            long start = System.nanoTime();
+            long slot = due;
+            due += periodNanos;
+            if (start >= due) {
+                skipped++;
+                return;
+            }
+            long jitter = Math.max(0L, start - slot);
+            if (jitter > maxJitterNanos) {
+                maxJitterNanos = jitter;
+            }
+            try {
+                action.run();
+            }
+            catch (Exception ex) {
+                failures++;
+                logger.at(Level.WARNING).log("NeonEcho " + name + " tick failed: " + ex.getMessage());
+            }
+            long elapsed = System.nanoTime() - start;
+            runs++;
+            lastNanos = elapsed;
+            if (elapsed > maxNanos) {
+                maxNanos = elapsed;
+            }
+            if (elapsed > budgetNanos) {
+                overruns++;
+                long now = System.currentTimeMillis();
+                if (now - lastOverrunLog >= OVERRUN_LOG_INTERVAL_MILLIS) {
+                    lastOverrunLog = now;
+                    logger.at(Level.WARNING).log("NeonEcho " + name + " tick took " + elapsed / 1_000_000L
+                            + "ms, over its " + budgetNanos / 1_000_000L + "ms budget (" + overruns + " overruns).");
+                }
+            }
+        }
+
+        private TaskStats stats() {
+            return new TaskStats(name, lane, runs, skipped, overruns, failures, lastNanos / 1_000_000L,
+                    maxNanos / 1_000_000L, maxJitterNanos / 1_000_000L);
+        }
+    }
+}
@@ -0,0 +1,79 @@
+package com.alexleo.neonecho;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+
+/**
+ * Hashed timing wheel. A deadline is rounded up to a tick and hashed into the slot for that tick; advancing the
+ * wheel only visits the slots whose ticks have passed. Timers more than one revolution out wait in their slot
+ * and are skipped until their tick comes round, so an advance costs the timers in the visited slots, not every
+ * pending timer.
+ * <p>
+ * Timers cannot be cancelled. Owners re-check the state a timer refers to when it fires, and a timer for state
+ * that has since been replaced does nothing.
+ */
+public final class NeonTimingWheel<K> {
+    private final long tickMillis;
+    private final List<ArrayDeque<Timer<K>>> slots;
+    private final int mask;
+    private long currentTick;
+    private int size;
+
+    public NeonTimingWheel(long tickMillis, int slotCount, long now) {
+        int count = Integer.highestOneBit(Math.max(2, slotCount - 1) << 1);
+        this.tickMillis = Math.max(1L, tickMillis);
+        this.slots = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            slots.add(new ArrayDeque<>());
+        }
+        this.mask = count - 1;
+        this.currentTick = now / this.tickMillis;
+    }
+
+    /**
+     * Schedules {@code key} to come back from {@link #advance} once {@code deadline} has passed.
+     */
+    public synchronized void schedule(K key, long deadline) {
+        long tick = Math.max((deadline + tickMillis - 1) / tickMillis, currentTick + 1);
+        slots.get((int) (tick & mask)).add(new Timer<>(key, tick));
+        size++;
+    }
+
+    /**
+     * Removes and returns the keys of every timer due by {@code now}, in no particular order.
+     */
+    public synchronized List<K> advance(long now) {
+        long target = now / tickMillis;
+        if (target <= currentTick) {
+            return List.of();
+        }
+        List<K> expired = null;
+        // After a stall of more than one revolution, one pass over every slot still finds everything due.
+        long from = Math.max(currentTick + 1, target - mask);
+        for (long tick = from; tick <= target && size > 0; tick++) {
+            for (Iterator<Timer<K>> it = slots.get((int) (tick & mask)).iterator(); it.hasNext(); ) {
+                Timer<K> timer = it.next();
+                if (timer.tick() > target) {
+                    continue;
+                }
+                it.remove();
+                size--;
+                if (expired == null) {
+                    expired = new ArrayList<>();
+                }
+                expired.add(timer.key());
+            }
+        }
+        currentTick = target;
+        return expired != null ? expired : List.of();
+    }
+
+    public synchronized int size() {
+        return size;
+    }
+
+    private record Timer<K>(K key, long tick) {
+    }
+}
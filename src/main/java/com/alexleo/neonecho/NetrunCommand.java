@@ -10,10 +10,8 @@ import com.hypixel.hytale.server.core.entity.entities.Player;
 import com.hypixel.hytale.server.core.universe.PlayerRef;
 
 import javax.annotation.Nonnull;
-import java.util.HashMap;
 import java.util.List;
 import java.util.Locale;
-import java.util.Map;
 import java.util.UUID;
 import java.util.concurrent.ThreadLocalRandom;
 
@@ -54,19 +52,19 @@ public class NetrunCommand extends CommandBase {
 
         long remainingCooldown = state.getCooldownRemainingMillis(playerId);
         if (remainingCooldown > 0) {
-            sendLines(ctx, state.getNetrunCooldownLines(), tokensForCooldown(remainingCooldown));
+            long seconds = Math.max(1L, remainingCooldown / 1000L);
+            sendLines(ctx, state.getNetrunCooldownLines(), new NeonMessageTemplate.Tokens().cooldown(seconds));
             return;
         }
 
         if (active != null) {
             long secondsLeft = Math.max(0L, (active.getExpiresAt() - now) / 1000L);
-            Map<String, String> tokens = new HashMap<>();
-            tokens.put("code", active.getCode());
-            tokens.put("seconds", Long.toString(secondsLeft));
-            tokens.put("tier", active.getTier().name());
-            tokens.put("stage", Integer.toString(active.getStage()));
-            tokens.put("stages", Integer.toString(active.getStages()));
-            tokens.put("risk", active.getRisk().name());
+            NeonMessageTemplate.Tokens tokens = new NeonMessageTemplate.Tokens()
+                    .code(active.getCode())
+                    .seconds(secondsLeft)
+                    .tier(active.getTier().name())
+                    .stage(active.getStage(), active.getStages())
+                    .risk(active.getRisk().name());
             sendLines(ctx, state.getNetrunHintLines(), tokens);
             return;
         }
@@ -74,10 +72,10 @@ public class NetrunCommand extends CommandBase {
         String tierName = null;
         String riskName = riskInput;
         if (input != null) {
-            if (isTierName(input)) {
+            if (state.isNetrunTier(input)) {
                 tierName = input;
             }
-            else if (isRiskName(input)) {
+            else if (state.isNetrunRisk(input)) {
                 riskName = input;
             }
             else {
@@ -87,7 +85,7 @@ public class NetrunCommand extends CommandBase {
                 return;
             }
         }
-        if (riskName != null && !riskName.isBlank() && !isRiskName(riskName)) {
+        if (riskName != null && !riskName.isBlank() && !state.isNetrunRisk(riskName)) {
             ctx.sendMessage(Message.raw(state.formatMessage("Unknown risk profile: " + riskName + ".")));
             sendRiskList(ctx);
             return;
@@ -103,13 +101,12 @@ public class NetrunCommand extends CommandBase {
         NeonEchoState.NetrunSession session = state.createSession(playerId, tier, risk, 1, 0, now);
         state.startSession(playerId, session);
 
-        Map<String, String> tokens = new HashMap<>();
-        tokens.put("code", session.getCode());
-        tokens.put("seconds", Integer.toString(session.getStageTimeoutSeconds()));
-        tokens.put("tier", tier.name());
-        tokens.put("stage", Integer.toString(session.getStage()));
-        tokens.put("stages", Integer.toString(session.getStages()));
-        tokens.put("risk", risk.name());
+        NeonMessageTemplate.Tokens tokens = new NeonMessageTemplate.Tokens()
+                .code(session.getCode())
+                .seconds(session.getStageTimeoutSeconds())
+                .tier(tier.name())
+                .stage(session.getStage(), session.getStages())
+                .risk(risk.name());
         sendLines(ctx, state.getNetrunStartLines(), tokens);
 
         int latency = ThreadLocalRandom.current().nextInt(12, 77);
@@ -151,12 +148,12 @@ public class NetrunCommand extends CommandBase {
             }
             state.addCred(playerId, reward);
 
-            Map<String, String> tokens = new HashMap<>();
-            tokens.put("cred", Integer.toString(reward));
-            tokens.put("cooldown", Integer.toString(cooldown));
-            tokens.put("tier", tier.name());
-            tokens.put("streak", Integer.toString(streak));
-            tokens.put("risk", risk.name());
+            NeonMessageTemplate.Tokens tokens = new NeonMessageTemplate.Tokens()
+                    .cred(reward)
+                    .cooldown(cooldown)
+                    .tier(tier.name())
+                    .streak(streak)
+                    .risk(risk.name());
             sendLines(ctx, state.getNetrunSuccessLines(), tokens);
             if (bonus > 0) {
                 ctx.sendMessage(Message.raw(state.formatMessage("Event bonus: +" + bonus + " cred.")));
@@ -180,19 +177,19 @@ public class NetrunCommand extends CommandBase {
             state.addCred(playerId, -penalty);
         }
 
-        Map<String, String> tokens = new HashMap<>();
-        tokens.put("cooldown", Integer.toString(cooldown));
-        tokens.put("tier", tier.name());
-        tokens.put("risk", risk.name());
+        NeonMessageTemplate.Tokens tokens = new NeonMessageTemplate.Tokens()
+                .cooldown(cooldown)
+                .tier(tier.name())
+                .risk(risk.name());
         sendLines(ctx, state.getNetrunFailLines(), tokens);
         if (penalty > 0) {
             ctx.sendMessage(Message.raw(state.formatMessage("Street Cred lost: -" + penalty + ".")));
         }
     }
 
-    private void sendLines(CommandContext ctx, List<String> lines, Map<String, String> tokens) {
-        for (String line : lines) {
-            ctx.sendMessage(Message.raw(state.formatMessage(applyTokens(line, tokens))));
+    private void sendLines(CommandContext ctx, List<NeonMessageTemplate> lines, NeonMessageTemplate.Tokens tokens) {
+        for (NeonMessageTemplate line : lines) {
+            ctx.sendMessage(Message.raw(line.render(tokens, true)));
         }
     }
 
@@ -211,37 +208,4 @@ public class NetrunCommand extends CommandBase {
         }
         ctx.sendMessage(Message.raw(state.formatMessage("Risk profiles: " + String.join(", ", risks) + ".")));
     }
-
-    private boolean isTierName(String input) {
-        for (String tier : state.getNetrunTierNames()) {
-            if (tier.equalsIgnoreCase(input)) {
-                return true;
-            }
-        }
-        return false;
-    }
-
-    private boolean isRiskName(String input) {
-        for (String risk : state.getNetrunRiskNames()) {
-            if (risk.equalsIgnoreCase(input)) {
-                return true;
-            }
-        }
-        return false;
-    }
-
-    private Map<String, String> tokensForCooldown(long remainingMillis) {
-        long seconds = Math.max(1L, remainingMillis / 1000L);
-        Map<String, String> tokens = new HashMap<>();
-        tokens.put("cooldown", Long.toString(seconds));
-        return tokens;
-    }
-
-    private String applyTokens(String line, Map<String, String> tokens) {
-        String result = line;
-        for (Map.Entry<String, String> entry : tokens.entrySet()) {
-            result = result.replace("{" + entry.getKey() + "}", entry.getValue());
-        }
-        return result;
-    }
 }